@@ -1,14 +1,23 @@
 package com.example.auracontrol.admin.controller;
 
 import com.example.auracontrol.booking.dto.AdminAppointmentDto;
+import com.example.auracontrol.booking.service.AppointmentExportService;
 import com.example.auracontrol.booking.service.AppointmentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/admin/appointments")
@@ -16,6 +25,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class AdminAppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AppointmentExportService appointmentExportService;
 
     @GetMapping
     public ResponseEntity<Page<AdminAppointmentDto>> getAppointments(
@@ -27,4 +37,26 @@ public class AdminAppointmentController {
         Page<AdminAppointmentDto> result = appointmentService.getAppointmentsForAdmin(keyword, status, page, size);
         return ResponseEntity.ok(result);
     }
-}
\ No newline at end of file
+
+    /**
+     * Streams matching appointments as CSV, ordered by start time.
+     * Endpoint: GET /api/admin/appointments/export?from=2025-01-01&to=2025-01-31&status=COMPLETED
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status
+    ) {
+        StreamingResponseBody body = appointmentExportService.exportCsv(from, to, status);
+
+        String filename = "appointments"
+                + (from != null ? "-" + from : "")
+                + (to != null ? "-" + to : "")
+                + ".csv";
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.auracontrol.admin.controller;
+
+import com.example.auracontrol.admin.dto.BulkImportResult;
+import com.example.auracontrol.admin.service.BulkImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/admin/import")
+@RequiredArgsConstructor
+public class AdminImportController {
+    private final BulkImportService bulkImportService;
+
+    // POST /api/admin/import/{services|resources|technicians}
+    // Body: CSV with a header row (list cells separated by ';') or a JSON array of objects.
+    // Responds 400 with the row errors when the import was aborted because of invalid rows.
+    @PostMapping(value = "/{kind}", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BulkImportResult> importRows(
+            @PathVariable String kind,
+            @RequestParam(defaultValue = "false") boolean skipInvalid,
+            HttpServletRequest request
+    ) throws IOException {
+        BulkImportResult result = bulkImportService.importRows(
+                kind, MediaType.parseMediaType(request.getContentType()), request.getInputStream(), skipInvalid);
+        return ResponseEntity.status(result.isAborted() ? HttpStatus.BAD_REQUEST : HttpStatus.OK).body(result);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.auracontrol.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BulkImportResult {
+    private String kind;
+    private int received;
+    private int imported;
+    private int rejected;
+    // true when invalid rows made the whole import roll back (skipInvalid=false)
+    private boolean aborted;
+    private long durationMs;
+    private List<RowError> errors;
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        // 1-based position of the row in the upload, header excluded
+        private int row;
+        private String field;
+        private String message;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.auracontrol.admin.repository;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Set-based reads and {@code COPY ... FROM STDIN} writes for the admin bulk import.
+ *
+ * <p>Must be called inside a transaction: the copies then run on the transaction's connection
+ * and a failing chunk rolls back everything copied before it.</p>
+ */
+@Repository
+public class BulkImportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BulkImportRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public Set<String> findActiveResourceNames(Collection<String> names) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT name FROM resources WHERE is_deleted = false AND name = ANY(?)",
+                String.class, (Object) names.toArray(String[]::new)));
+    }
+
+    public Set<String> findActiveServiceNames(Collection<String> names) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT name FROM services WHERE is_active = true AND name = ANY(?)",
+                String.class, (Object) names.toArray(String[]::new)));
+    }
+
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT email FROM users WHERE email = ANY(?)",
+                String.class, (Object) emails.toArray(String[]::new)));
+    }
+
+    public Set<Integer> findActiveServiceIds(Collection<Integer> serviceIds) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT service_id FROM services WHERE is_active = true AND service_id = ANY(?)",
+                Integer.class, (Object) serviceIds.toArray(Integer[]::new)));
+    }
+
+    /**
+     * Blocks inserts into {@code table} by other transactions until this one ends, so a name
+     * checked afterwards cannot be taken before the rows are copied. Reads are not blocked.
+     */
+    public void lockForInsert(String table) {
+        jdbcTemplate.execute("LOCK TABLE " + table + " IN SHARE ROW EXCLUSIVE MODE");
+    }
+
+    /**
+     * Creates an empty temporary table with {@code columns} of {@code table}, dropped at commit.
+     */
+    public void createStagingTable(String staging, String table, String columns) {
+        jdbcTemplate.execute("CREATE TEMP TABLE " + staging + " ON COMMIT DROP AS SELECT " + columns
+                + " FROM " + table + " WITH NO DATA");
+    }
+
+    /**
+     * Moves the staged users into {@code users}, skipping any whose email is already taken,
+     * including by a transaction that committed after the import checked.
+     *
+     * @return emails of the users that were inserted
+     */
+    public Set<String> insertStagedUsers(String staging, String columns) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "INSERT INTO users (" + columns + ") SELECT " + columns + " FROM " + staging
+                        + " ON CONFLICT (email) DO NOTHING RETURNING email",
+                String.class));
+    }
+
+    /**
+     * Reserves {@code count} ids from the sequence behind a SERIAL column, so rows
+     * can be linked to each other before any of them is written.
+     */
+    public List<Integer> nextIds(String table, String column, int count) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence(?, ?))::int FROM generate_series(1, ?)",
+                Integer.class, table, column, count);
+    }
+
+    /**
+     * Streams {@code csv} (no header) into {@code table} with one COPY round trip.
+     *
+     * @return number of rows copied
+     */
+    public long copy(String table, String columns, CharSequence csv) {
+        String sql = "COPY " + table + " (" + columns + ") FROM STDIN (FORMAT csv)";
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(sql, new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new SQLException("COPY into " + table + " failed", e);
+            }
+        });
+        return copied != null ? copied : 0;
+    }
+}
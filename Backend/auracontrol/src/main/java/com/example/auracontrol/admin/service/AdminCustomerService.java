@@ -26,6 +26,7 @@ public class AdminCustomerService {
     private final CustomerRepository customerRepository;
     private final AppointmentRepository appointmentRepository;
 
+    @Transactional(readOnly = true)
     public Page<CustomerListResponse> getCustomers(String keyword, Pageable pageable) {
         return userRepository.findAllCustomersWithAppointmentCount(keyword, pageable);
     }
@@ -4,6 +4,7 @@ import com.example.auracontrol.admin.dto.TechnicianRequest;
 import com.example.auracontrol.admin.dto.TechnicianResponse;
 import com.example.auracontrol.exception.DuplicateResourceException;
 import com.example.auracontrol.exception.ResourceNotFoundException;
+import com.example.auracontrol.service.ServiceCatalogChangedEvent;
 import com.example.auracontrol.service.ServiceRepository;
 import com.example.auracontrol.service.TechnicianServiceSkill;
 import com.example.auracontrol.user.Role;
@@ -11,7 +12,9 @@ import com.example.auracontrol.user.entity.Technician;
 import com.example.auracontrol.user.entity.User;
 import com.example.auracontrol.user.repository.TechnicianRepository;
 import com.example.auracontrol.user.repository.UserRepository;
+import com.example.auracontrol.user.service.UserCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -28,6 +31,8 @@ public class AdminTechnicianService {
     private final UserRepository userRepository;
     private final ServiceRepository serviceRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserCache userCache;
 
 
     @Transactional(readOnly = true)
@@ -56,6 +61,7 @@ public class AdminTechnicianService {
             user.setName(request.getFullName());
             user.setPassword(passwordEncoder.encode(request.getPassword()));
             userRepository.save(user);
+            userCache.evict(user);
 
 
             tech = technicianRepository.findByUser_UserId(user.getUserId())
@@ -115,7 +121,9 @@ public class AdminTechnicianService {
             }
         }
 
-        return mapToResponse(technicianRepository.save(tech));
+        Technician saved = technicianRepository.save(tech);
+        eventPublisher.publishEvent(new ServiceCatalogChangedEvent("technician saved: " + saved.getTechnicianId()));
+        return mapToResponse(saved);
     }
     // 3. UPDATE
     @Transactional
@@ -133,6 +141,7 @@ public class AdminTechnicianService {
         if (request.getPassword() != null && !request.getPassword().isBlank()) {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
         }
+        userCache.evict(user);
 
         if (request.getServiceIds() != null) {
             Set<Integer> newServiceIds = new HashSet<>(request.getServiceIds());
@@ -162,7 +171,9 @@ public class AdminTechnicianService {
             }
         }
 
-        return mapToResponse(technicianRepository.save(tech));
+        Technician saved = technicianRepository.save(tech);
+        eventPublisher.publishEvent(new ServiceCatalogChangedEvent("technician updated: " + id));
+        return mapToResponse(saved);
     }
     @Transactional
     public void deleteTechnician(Integer technicianId) {
@@ -179,6 +190,8 @@ public class AdminTechnicianService {
         user.setEnabled(false);
 
         technicianRepository.save(tech);
+        userCache.evict(user);
+        eventPublisher.publishEvent(new ServiceCatalogChangedEvent("technician disabled: " + technicianId));
     }
     private TechnicianResponse mapToResponse(Technician t) {
         TechnicianResponse res = new TechnicianResponse();
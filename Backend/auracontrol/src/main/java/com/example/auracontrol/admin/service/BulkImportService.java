@@ -0,0 +1,566 @@
+package com.example.auracontrol.admin.service;
+
+import com.example.auracontrol.admin.dto.BulkImportResult;
+import com.example.auracontrol.admin.dto.ResourceDto;
+import com.example.auracontrol.admin.dto.TechnicianRequest;
+import com.example.auracontrol.admin.repository.BulkImportRepository;
+import com.example.auracontrol.exception.InvalidRequestException;
+import com.example.auracontrol.service.ServiceCatalogChangedEvent;
+import com.example.auracontrol.service.dto.ServiceRequest;
+import com.example.auracontrol.shared.security.BoundedPasswordEncoder;
+import com.example.auracontrol.user.Role;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk onboarding of services, resources and technicians from a CSV or JSON upload.
+ *
+ * <p>The whole upload is parsed and validated in memory first, including duplicates inside the file.
+ * Valid rows are then written with {@code COPY} in chunks, in a single transaction. Ids are reserved
+ * from the SERIAL sequences up front so users, technicians and their skills can be copied as plain rows.</p>
+ *
+ * <p>Duplicates against the database are checked inside that transaction, with one set-based query
+ * per kind: services and resources lock their table against concurrent inserts first, and technicians
+ * go through a staging table into {@code users} with {@code ON CONFLICT (email) DO NOTHING}. Either
+ * way a row that clashes with a concurrent write is reported like any other invalid row, and it
+ * aborts the import unless invalid rows are skipped.</p>
+ *
+ * <p>Services and resources copy at well over 10k rows per second; technicians are bound by BCrypt,
+ * which runs on a dedicated pool at the strength logins use, so a large technician file costs
+ * roughly {@code rows * hash latency / hash threads}.</p>
+ */
+@Service
+public class BulkImportService {
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private static final String USER_STAGING = "bulk_import_users";
+    private static final String USER_COLUMNS = "user_id, name, email, password, role, is_enabled, created_at";
+
+    enum Kind {
+        SERVICES, RESOURCES, TECHNICIANS;
+
+        static Kind parse(String value) {
+            for (Kind kind : values()) {
+                if (kind.name().equalsIgnoreCase(value)) {
+                    return kind;
+                }
+            }
+            throw new InvalidRequestException("Unknown import kind: " + value + ", expected services, resources or technicians");
+        }
+    }
+
+    private final BulkImportRepository importRepository;
+    private final TransactionTemplate writeTransaction;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final PasswordHasher passwordHasher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final int maxRows;
+    private final int chunkSize;
+
+    public BulkImportService(BulkImportRepository importRepository,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             BoundedPasswordEncoder passwordEncoder,
+                             ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.bulk-import.max-rows:100000}") int maxRows,
+                             @Value("${app.bulk-import.chunk-size:5000}") int chunkSize,
+                             @Value("${app.bulk-import.hash-threads:0}") int hashThreads) {
+        this.importRepository = importRepository;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+                .build();
+        this.passwordHasher = new PasswordHasher(passwordEncoder.getStrength(),
+                hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.maxRows = maxRows;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param skipInvalid when false, any invalid row aborts the import and nothing is written;
+     *                    when true, the valid rows are imported and the invalid ones reported
+     */
+    public BulkImportResult importRows(String kindName, MediaType contentType, InputStream body, boolean skipInvalid) {
+        Kind kind = Kind.parse(kindName);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long started = System.nanoTime();
+
+        List<JsonNode> nodes = read(contentType, body);
+        List<BulkImportResult.RowError> errors = new ArrayList<>();
+
+        int imported = switch (kind) {
+            case SERVICES -> {
+                List<Candidate<ServiceRequest>> rows = validateServices(nodes, errors);
+                yield write(rows, errors, skipInvalid, this::writeServices);
+            }
+            case RESOURCES -> {
+                List<Candidate<ResourceDto>> rows = validateResources(nodes, errors);
+                yield write(rows, errors, skipInvalid, this::writeResources);
+            }
+            case TECHNICIANS -> {
+                List<Candidate<TechnicianRequest>> rows = validateTechnicians(nodes, errors);
+                if (!shouldWrite(rows, errors, skipInvalid)) {
+                    yield 0;
+                }
+                List<String> hashes = passwordHasher.hashAll(rows.stream().map(row -> row.value().getPassword()).toList());
+                yield write(rows, errors, skipInvalid, candidates -> writeTechnicians(candidates, hashes));
+            }
+        };
+        boolean aborted = !errors.isEmpty() && !skipInvalid;
+
+        String tag = kind.name().toLowerCase(Locale.ROOT);
+        sample.stop(meterRegistry.timer("admin.bulk_import", "kind", tag, "outcome", aborted ? "aborted" : "imported"));
+        meterRegistry.counter("admin.bulk_import.rows", "kind", tag).increment(imported);
+
+        errors.sort(Comparator.comparingInt(BulkImportResult.RowError::getRow));
+        long durationMs = (System.nanoTime() - started) / 1_000_000;
+        int rejectedRows = (int) errors.stream().mapToInt(BulkImportResult.RowError::getRow).distinct().count();
+        log.info("Bulk import of {}: {} rows received, {} imported, {} rejected{} in {} ms",
+                tag, nodes.size(), imported, rejectedRows, aborted ? " (aborted)" : "", durationMs);
+
+        return BulkImportResult.builder()
+                .kind(tag)
+                .received(nodes.size())
+                .imported(imported)
+                .rejected(rejectedRows)
+                .aborted(aborted)
+                .durationMs(durationMs)
+                .errors(errors)
+                .build();
+    }
+
+    private List<JsonNode> read(MediaType contentType, InputStream body) {
+        ObjectReader reader;
+        if (contentType != null && TEXT_CSV.isCompatibleWith(contentType)) {
+            reader = csvMapper.readerFor(JsonNode.class).with(CsvSchema.emptySchema().withHeader());
+        } else if (contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(contentType)) {
+            reader = objectMapper.readerFor(JsonNode.class);
+        } else {
+            throw new InvalidRequestException("Unsupported content type " + contentType + ", expected text/csv or application/json");
+        }
+
+        List<JsonNode> nodes = new ArrayList<>();
+        try (MappingIterator<JsonNode> iterator = reader.readValues(body)) {
+            while (iterator.hasNextValue()) {
+                if (nodes.size() == maxRows) {
+                    throw new InvalidRequestException("An import is limited to " + maxRows + " rows");
+                }
+                nodes.add(iterator.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidRequestException("Malformed upload after row " + nodes.size() + ": " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new InvalidRequestException("Could not read the upload: " + e.getMessage());
+        }
+        return nodes;
+    }
+
+    // ---------------------------------------------------------------- services
+
+    private List<Candidate<ServiceRequest>> validateServices(List<JsonNode> nodes, List<BulkImportResult.RowError> errors) {
+        Map<String, Integer> firstRowByName = new HashMap<>();
+        List<Candidate<ServiceRequest>> rows = new ArrayList<>(nodes.size());
+        for (ImportRow row : rows(nodes, errors)) {
+            ServiceRequest request = new ServiceRequest();
+            request.setName(row.text("name", true));
+            if (request.getName() != null) {
+                Integer first = firstRowByName.putIfAbsent(request.getName(), row.number());
+                if (first != null) {
+                    row.reject("name", "duplicates row " + first);
+                }
+            }
+            request.setDescription(row.text("description", false));
+            request.setPrice(row.decimal("price", true));
+            request.setDurationMinutes(row.integer("durationMinutes", true));
+            Boolean active = row.bool("isActive");
+            request.setIsActive(active != null ? active : true);
+
+            if (request.getPrice() != null && request.getPrice().signum() < 0) {
+                row.reject("price", "must not be negative");
+            }
+            if (request.getDurationMinutes() != null && request.getDurationMinutes() <= 0) {
+                row.reject("durationMinutes", "must be positive");
+            }
+
+            // "ROOM" or "ROOM:2"
+            List<ServiceRequest.ServiceResourceDto> requirements = new ArrayList<>();
+            for (String item : row.list("resources")) {
+                String[] parts = item.split(":", 2);
+                ServiceRequest.ServiceResourceDto requirement = new ServiceRequest.ServiceResourceDto();
+                requirement.setResourceType(parts[0].trim());
+                requirement.setQuantity(1);
+                if (parts.length == 2) {
+                    try {
+                        requirement.setQuantity(Integer.parseInt(parts[1].trim()));
+                    } catch (NumberFormatException e) {
+                        requirement.setQuantity(0);
+                    }
+                }
+                if (requirement.getResourceType().isEmpty() || requirement.getQuantity() <= 0) {
+                    row.reject("resources", "'" + item + "' is not TYPE or TYPE:quantity");
+                }
+                requirements.add(requirement);
+            }
+            request.setResources(requirements);
+
+            if (row.isValid()) {
+                rows.add(new Candidate<>(request, row));
+            }
+        }
+        return rows;
+    }
+
+    private int writeServices(List<Candidate<ServiceRequest>> candidates) {
+        importRepository.lockForInsert("services");
+        Set<String> existing = importRepository.findActiveServiceNames(
+                candidates.stream().map(candidate -> candidate.value().getName()).toList());
+        List<ServiceRequest> rows = rejectWhere(candidates, row -> existing.contains(row.getName()),
+                "name", "an active service with this name already exists");
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<Integer> ids = importRepository.nextIds("services", "service_id", rows.size());
+        List<Object[]> services = new ArrayList<>(rows.size());
+        List<Object[]> requirements = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ServiceRequest row = rows.get(i);
+            Integer id = ids.get(i);
+            services.add(new Object[]{id, row.getName(), row.getDescription(), row.getPrice(),
+                    row.getDurationMinutes(), row.getIsActive()});
+            for (ServiceRequest.ServiceResourceDto requirement : row.getResources()) {
+                requirements.add(new Object[]{id, requirement.getResourceType(), requirement.getQuantity()});
+            }
+        }
+        copyInChunks("services", "service_id, name, description, price, duration_minutes, is_active", services);
+        copyInChunks("service_resource_requirement", "service_id, resource_type, quantity", requirements);
+
+        eventPublisher.publishEvent(new ServiceCatalogChangedEvent("bulk import: " + rows.size() + " services"));
+        return rows.size();
+    }
+
+    // ---------------------------------------------------------------- resources
+
+    private List<Candidate<ResourceDto>> validateResources(List<JsonNode> nodes, List<BulkImportResult.RowError> errors) {
+        Map<String, Integer> firstRowByName = new HashMap<>();
+        List<Candidate<ResourceDto>> candidates = new ArrayList<>();
+        for (ImportRow row : rows(nodes, errors)) {
+            ResourceDto resource = new ResourceDto();
+            resource.setName(row.text("name", true));
+            resource.setType(row.text("type", true));
+            if (resource.getName() != null) {
+                Integer first = firstRowByName.putIfAbsent(resource.getName(), row.number());
+                if (first != null) {
+                    row.reject("name", "duplicates row " + first);
+                }
+            }
+            if (row.isValid()) {
+                candidates.add(new Candidate<>(resource, row));
+            }
+        }
+        return candidates;
+    }
+
+    private int writeResources(List<Candidate<ResourceDto>> candidates) {
+        importRepository.lockForInsert("resources");
+        Set<String> existing = importRepository.findActiveResourceNames(
+                candidates.stream().map(candidate -> candidate.value().getName()).toList());
+        List<ResourceDto> rows = rejectWhere(candidates, row -> existing.contains(row.getName()),
+                "name", "an active resource with this name already exists");
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> resources = new ArrayList<>(rows.size());
+        for (ResourceDto row : rows) {
+            resources.add(new Object[]{row.getName(), row.getType(), false});
+        }
+        copyInChunks("resources", "name, type, is_deleted", resources);
+        return rows.size();
+    }
+
+    // ---------------------------------------------------------------- technicians
+
+    private List<Candidate<TechnicianRequest>> validateTechnicians(List<JsonNode> nodes, List<BulkImportResult.RowError> errors) {
+        Map<String, Integer> firstRowByEmail = new HashMap<>();
+        Set<Integer> referencedServices = new HashSet<>();
+        List<Candidate<TechnicianRequest>> candidates = new ArrayList<>();
+        for (ImportRow row : rows(nodes, errors)) {
+            TechnicianRequest technician = new TechnicianRequest();
+            technician.setFullName(row.text("fullName", true));
+            technician.setEmail(row.text("email", true));
+            technician.setPassword(row.text("password", true));
+
+            if (technician.getEmail() != null) {
+                if (!EMAIL.matcher(technician.getEmail()).matches()) {
+                    row.reject("email", "is not a valid email address");
+                } else {
+                    Integer first = firstRowByEmail.putIfAbsent(technician.getEmail(), row.number());
+                    if (first != null) {
+                        row.reject("email", "duplicates row " + first);
+                    }
+                }
+            }
+
+            Set<Integer> serviceIds = new LinkedHashSet<>();
+            for (String item : row.list("serviceIds")) {
+                try {
+                    serviceIds.add(Integer.valueOf(item));
+                } catch (NumberFormatException e) {
+                    row.reject("serviceIds", "'" + item + "' is not a service id");
+                }
+            }
+            technician.setServiceIds(new ArrayList<>(serviceIds));
+
+            if (row.isValid()) {
+                referencedServices.addAll(serviceIds);
+                candidates.add(new Candidate<>(technician, row));
+            }
+        }
+
+        // taken emails are looked up here only to spare hashing their passwords, insertStagedUsers has the last word
+        Set<String> existingEmails = candidates.isEmpty()
+                ? Set.of()
+                : importRepository.findExistingEmails(firstRowByEmail.keySet());
+        Set<Integer> activeServices = referencedServices.isEmpty()
+                ? Set.of()
+                : importRepository.findActiveServiceIds(referencedServices);
+
+        List<Candidate<TechnicianRequest>> rows = new ArrayList<>(candidates.size());
+        for (Candidate<TechnicianRequest> candidate : candidates) {
+            TechnicianRequest technician = candidate.value();
+            ImportRow row = candidate.row();
+            if (existingEmails.contains(technician.getEmail())) {
+                row.reject("email", "already exists");
+            }
+            for (Integer serviceId : technician.getServiceIds()) {
+                if (!activeServices.contains(serviceId)) {
+                    row.reject("serviceIds", "service " + serviceId + " does not exist or is inactive");
+                }
+            }
+            if (row.isValid()) {
+                rows.add(candidate);
+            }
+        }
+        return rows;
+    }
+
+    private int writeTechnicians(List<Candidate<TechnicianRequest>> candidates, List<String> hashes) {
+        List<Integer> userIds = importRepository.nextIds("users", "user_id", candidates.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> users = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            TechnicianRequest row = candidates.get(i).value();
+            users.add(new Object[]{userIds.get(i), row.getFullName(), row.getEmail(), hashes.get(i),
+                    Role.TECHNICIAN.name(), true, now});
+        }
+        importRepository.createStagingTable(USER_STAGING, "users", USER_COLUMNS);
+        copyInChunks(USER_STAGING, USER_COLUMNS, users);
+        Set<String> inserted = importRepository.insertStagedUsers(USER_STAGING, USER_COLUMNS);
+
+        List<Integer> insertedUserIds = new ArrayList<>(inserted.size());
+        List<TechnicianRequest> rows = new ArrayList<>(inserted.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate<TechnicianRequest> candidate = candidates.get(i);
+            if (inserted.contains(candidate.value().getEmail())) {
+                insertedUserIds.add(userIds.get(i));
+                rows.add(candidate.value());
+            } else {
+                candidate.row().reject("email", "already exists");
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<Integer> technicianIds = importRepository.nextIds("technician", "technician_id", rows.size());
+        List<Object[]> technicians = new ArrayList<>(rows.size());
+        List<Object[]> skills = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            technicians.add(new Object[]{technicianIds.get(i), insertedUserIds.get(i)});
+            for (Integer serviceId : rows.get(i).getServiceIds()) {
+                skills.add(new Object[]{technicianIds.get(i), serviceId});
+            }
+        }
+        copyInChunks("technician", "technician_id, user_id", technicians);
+        copyInChunks("technician_services", "technician_id, service_id", skills);
+
+        eventPublisher.publishEvent(new ServiceCatalogChangedEvent("bulk import: " + rows.size() + " technicians"));
+        return rows.size();
+    }
+
+    // ---------------------------------------------------------------- helpers
+
+    // a row that passed field validation and still has to pass the database checks
+    private record Candidate<T>(T value, ImportRow row) {
+    }
+
+    private static boolean shouldWrite(List<?> rows, List<BulkImportResult.RowError> errors, boolean skipInvalid) {
+        return !rows.isEmpty() && (errors.isEmpty() || skipInvalid);
+    }
+
+    /**
+     * Runs {@code writer} in the write transaction. The writer does the database checks itself and
+     * rejects clashing rows; unless invalid rows are skipped, any such rejection rolls everything back.
+     */
+    private <T> int write(List<Candidate<T>> rows, List<BulkImportResult.RowError> errors, boolean skipInvalid,
+                          ToIntFunction<List<Candidate<T>>> writer) {
+        if (!shouldWrite(rows, errors, skipInvalid)) {
+            return 0;
+        }
+        Integer written = writeTransaction.execute(status -> {
+            int count = writer.applyAsInt(rows);
+            if (!errors.isEmpty() && !skipInvalid) {
+                status.setRollbackOnly();
+                return 0;
+            }
+            return count;
+        });
+        return written != null ? written : 0;
+    }
+
+    private static <T> List<T> rejectWhere(List<Candidate<T>> candidates, Predicate<T> clashes, String field, String message) {
+        List<T> accepted = new ArrayList<>(candidates.size());
+        for (Candidate<T> candidate : candidates) {
+            if (clashes.test(candidate.value())) {
+                candidate.row().reject(field, message);
+            } else {
+                accepted.add(candidate.value());
+            }
+        }
+        return accepted;
+    }
+
+    private static List<ImportRow> rows(List<JsonNode> nodes, List<BulkImportResult.RowError> errors) {
+        List<ImportRow> rows = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            JsonNode node = nodes.get(i);
+            ImportRow row = new ImportRow(i + 1, node, errors);
+            if (!node.isObject()) {
+                row.reject(null, "must be an object");
+                continue;
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private void copyInChunks(String table, String columns, List<Object[]> rows) {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < rows.size(); i++) {
+            appendCsvLine(csv, rows.get(i));
+            if ((i + 1) % chunkSize == 0) {
+                importRepository.copy(table, columns, csv);
+                csv.setLength(0);
+            }
+        }
+        if (!csv.isEmpty()) {
+            importRepository.copy(table, columns, csv);
+        }
+    }
+
+    // COPY csv format: an unquoted empty field is NULL, a quoted one is an empty string
+    private static void appendCsvLine(StringBuilder csv, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                csv.append(',');
+            }
+            Object value = values[i];
+            if (value instanceof String text) {
+                csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else if (value instanceof BigDecimal decimal) {
+                csv.append(decimal.toPlainString());
+            } else if (value != null) {
+                csv.append(value);
+            }
+        }
+        csv.append('\n');
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        passwordHasher.shutdown();
+    }
+
+    /**
+     * BCrypt for imported passwords, on its own pool so a large import neither queues behind
+     * nor starves the bounded login hashing of {@link BoundedPasswordEncoder}.
+     */
+    private static final class PasswordHasher {
+        private final BCryptPasswordEncoder encoder;
+        private final ExecutorService executor;
+
+        PasswordHasher(int strength, int threads) {
+            this.encoder = new BCryptPasswordEncoder(strength);
+            this.executor = Executors.newFixedThreadPool(threads,
+                    Thread.ofPlatform().name("bulk-import-hash-", 0).daemon(true).factory());
+        }
+
+        List<String> hashAll(List<String> passwords) {
+            List<Callable<String>> tasks = new ArrayList<>(passwords.size());
+            for (String password : passwords) {
+                tasks.add(() -> encoder.encode(password));
+            }
+            try {
+                List<String> hashes = new ArrayList<>(passwords.size());
+                for (Future<String> future : executor.invokeAll(tasks)) {
+                    hashes.add(future.get());
+                }
+                return hashes;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while hashing imported passwords", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Hashing imported passwords failed", e.getCause());
+            }
+        }
+
+        void shutdown() {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.auracontrol.admin.service;
+
+import com.example.auracontrol.admin.dto.BulkImportResult;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One uploaded row, read field by field so that CSV cells (always text) and JSON values
+ * convert the same way. Conversion problems are collected as row errors instead of thrown.
+ */
+final class ImportRow {
+    static final String LIST_SEPARATOR = ";";
+
+    private final int number;
+    private final JsonNode node;
+    private final List<BulkImportResult.RowError> errors;
+    private int rejections;
+
+    ImportRow(int number, JsonNode node, List<BulkImportResult.RowError> errors) {
+        this.number = number;
+        this.node = node;
+        this.errors = errors;
+    }
+
+    int number() {
+        return number;
+    }
+
+    boolean isValid() {
+        return rejections == 0;
+    }
+
+    void reject(String field, String message) {
+        errors.add(new BulkImportResult.RowError(number, field, message));
+        rejections++;
+    }
+
+    String text(String field, boolean required) {
+        JsonNode value = node.get(field);
+        String text = value == null || value.isNull() ? null : value.asText().trim();
+        if (text == null || text.isEmpty()) {
+            if (required) {
+                reject(field, "is required");
+            }
+            return null;
+        }
+        return text;
+    }
+
+    Integer integer(String field, boolean required) {
+        String text = text(field, required);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(text);
+        } catch (NumberFormatException e) {
+            reject(field, "must be a whole number");
+            return null;
+        }
+    }
+
+    BigDecimal decimal(String field, boolean required) {
+        String text = text(field, required);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            reject(field, "must be a number");
+            return null;
+        }
+    }
+
+    Boolean bool(String field) {
+        String text = text(field, false);
+        if (text == null) {
+            return null;
+        }
+        if (text.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (text.equalsIgnoreCase("false")) {
+            return false;
+        }
+        reject(field, "must be true or false");
+        return null;
+    }
+
+    /**
+     * A JSON array, or a CSV cell with the items separated by {@value #LIST_SEPARATOR}.
+     */
+    List<String> list(String field) {
+        JsonNode value = node.get(field);
+        List<String> items = new ArrayList<>();
+        if (value == null || value.isNull()) {
+            return items;
+        }
+        if (value.isArray()) {
+            for (JsonNode item : value) {
+                String text = item.asText().trim();
+                if (!text.isEmpty()) {
+                    items.add(text);
+                }
+            }
+            return items;
+        }
+        for (String item : value.asText().split(LIST_SEPARATOR)) {
+            String text = item.trim();
+            if (!text.isEmpty()) {
+                items.add(text);
+            }
+        }
+        return items;
+    }
+}
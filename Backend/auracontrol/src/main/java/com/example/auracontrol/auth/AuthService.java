@@ -13,6 +13,7 @@ import com.example.auracontrol.user.entity.Customer;
 import com.example.auracontrol.user.entity.User;
 import com.example.auracontrol.user.repository.CustomerRepository;
 import com.example.auracontrol.user.repository.UserRepository;
+import com.example.auracontrol.user.service.UserCache;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -32,6 +33,7 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
     private final CustomerRepository customerRepository;
+    private final UserCache userCache;
     @Transactional
     public void register(RegisterRequest request) {
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
@@ -62,13 +64,15 @@ public class AuthService {
                 )
         );
 
+        // Not from UserCache: the password and enabled flag just checked came from the database too
         User user = userRepository.findByEmail(loginRequest.getEmail())
-                .orElseThrow(() -> new Exception("User not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         String jwtToken = jwtService.generateToken(user);
         return new AuthResponse(jwtToken);
     }
 
+    @Transactional
     public void forgotPassword(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("Email does not exist."));
@@ -94,6 +98,7 @@ public class AuthService {
             customerRepository.save(customer);
         }
         userRepository.save(user);
+        userCache.evict(user);
     }
 
     @Transactional
@@ -113,6 +118,7 @@ public class AuthService {
         user.setResetPasswordTokenExpiry(null);
 
         userRepository.save(user);
+        userCache.evict(user);
     }
 
 
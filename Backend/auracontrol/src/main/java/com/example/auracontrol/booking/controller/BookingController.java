@@ -7,11 +7,16 @@ import com.example.auracontrol.booking.dto.BookingResponseDto;
 import com.example.auracontrol.booking.dto.TechnicianOptionDto;
 import com.example.auracontrol.booking.entity.Appointment;
 import com.example.auracontrol.booking.service.AppointmentService;
+import com.example.auracontrol.exception.DuplicateResourceException;
+import com.example.auracontrol.exception.InvalidRequestException;
+import com.example.auracontrol.exception.ResourceNotFoundException;
+import com.example.auracontrol.shared.idempotency.IdempotencyService;
+import com.example.auracontrol.shared.security.AuthenticatedUser;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -24,6 +29,7 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class BookingController {
     private final AppointmentService appointmentService;
+    private final IdempotencyService idempotencyService;
 
     // GET /api/booking/available-slots?serviceId=1&date=2025-10-20
     @GetMapping("/available-slots")
@@ -48,45 +54,57 @@ public class BookingController {
         return ResponseEntity.ok(appointmentService.getAvailableTechnicians(serviceId, startTime));
     }
 
+    // Optional Idempotency-Key header: a retried POST returns the first response instead of booking twice
     @PostMapping
-    public ResponseEntity<?> createBooking(@RequestBody @Valid BookingRequest request) {
-        Appointment newAppointment = appointmentService.createAppointment(request);
-
-        return ResponseEntity.ok(Map.of(
-                "message", "Booking successfully created!.",
-                "appointmentId", newAppointment.getAppointmentId(),
-                "status", newAppointment.getStatus(),
-                "startTime", newAppointment.getStartTime()
-        ));
+    public ResponseEntity<?> createBooking(
+            @RequestBody @Valid BookingRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) {
+        return idempotencyService.execute(idempotencyKey, principal.getUserId(), "create", request, () -> {
+            Appointment newAppointment = appointmentService.createAppointment(request, principal.getCustomerId());
+
+            return ResponseEntity.ok(Map.of(
+                    "message", "Booking successfully created!.",
+                    "appointmentId", newAppointment.getAppointmentId(),
+                    "status", newAppointment.getStatus(),
+                    "startTime", newAppointment.getStartTime()
+            ));
+        });
     }
     //GET /api/booking/upcoming-appointments
     @GetMapping("/upcoming-appointments")
-    public ResponseEntity<List<BookingResponseDto>> getUpcomingAppointments() {
-        String currentUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-
-        List<BookingResponseDto> list = appointmentService.getUpcomingAppointments(currentUserEmail);
+    public ResponseEntity<List<BookingResponseDto>> getUpcomingAppointments(
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) {
+        List<BookingResponseDto> list = appointmentService.getUpcomingAppointments(principal.getCustomerId());
 
         return ResponseEntity.ok(list);
     }
     //PUT /api/booking/upcoming-appointments
     @PutMapping("/cancel/{id}")
-    public ResponseEntity<?> cancelAppointment(@PathVariable Integer id) {
-        String currentUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-
-        try {
-            appointmentService.cancelAppointment(id, currentUserEmail);
-            return ResponseEntity.ok(Map.of("message", "Appointment cancelled successfully."));
-        } catch (RuntimeException e) {
-
-            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
-        }
+    public ResponseEntity<?> cancelAppointment(
+            @PathVariable Integer id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) {
+        return idempotencyService.execute(idempotencyKey, principal.getUserId(), "cancel", List.of(id), () -> {
+            try {
+                appointmentService.cancelAppointment(id, principal.getCustomerId());
+                return ResponseEntity.ok(Map.of("message", "Appointment cancelled successfully."));
+            } catch (ResourceNotFoundException | InvalidRequestException | DuplicateResourceException e) {
+                // Business rule violations keep their 400; conflicts that outlast the retries reach
+                // GlobalExceptionHandler as a 503 with Retry-After
+                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+            }
+        });
     }
     // GET /api/booking/history
     @GetMapping("/history")
-    public ResponseEntity<List<BookingResponseDto>> getAppointmentHistory() {
-        String currentUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-
-        List<BookingResponseDto> history = appointmentService.getAppointmentHistory(currentUserEmail);
+    public ResponseEntity<List<BookingResponseDto>> getAppointmentHistory(
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) {
+        List<BookingResponseDto> history = appointmentService.getAppointmentHistory(principal.getCustomerId());
 
         return ResponseEntity.ok(history);
     }
@@ -95,33 +113,33 @@ public class BookingController {
      * Endpoint: PUT /api/booking/{id}/reschedule
      */
     @PutMapping("/{id}/reschedule")
-    public ResponseEntity<BookingResponseDto> rescheduleAppointment(
+    public ResponseEntity<?> rescheduleAppointment(
             @PathVariable Integer id,
-            @RequestBody @Valid AppointmentUpdateRequest request
+            @RequestBody @Valid AppointmentUpdateRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
-
-        String currentUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-
-
-        Appointment updatedAppointment = appointmentService.rescheduleAppointment(
-                id,
-                request.getNewStartTime(),
-                currentUserEmail
-        );
-
-
-        BookingResponseDto response = BookingResponseDto.builder()
-                .id(updatedAppointment.getAppointmentId())
-                .serviceName(updatedAppointment.getService().getName())
-                .startTime(updatedAppointment.getStartTime())
-                .duration(updatedAppointment.getService().getDurationMinutes())
-                .technicianName(updatedAppointment.getTechnician() != null
-                        ? updatedAppointment.getTechnician().getUser().getName()
-                        : "Arranging")
-                .status(updatedAppointment.getStatus())
-                .build();
-
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute(idempotencyKey, principal.getUserId(), "reschedule", List.of(id, request), () -> {
+            Appointment updatedAppointment = appointmentService.rescheduleAppointment(
+                    id,
+                    request.getNewStartTime(),
+                    principal.getCustomerId()
+            );
+
+
+            BookingResponseDto response = BookingResponseDto.builder()
+                    .id(updatedAppointment.getAppointmentId())
+                    .serviceName(updatedAppointment.getService().getName())
+                    .startTime(updatedAppointment.getStartTime())
+                    .duration(updatedAppointment.getService().getDurationMinutes())
+                    .technicianName(updatedAppointment.getTechnician() != null
+                            ? updatedAppointment.getTechnician().getUser().getName()
+                            : "Arranging")
+                    .status(updatedAppointment.getStatus())
+                    .build();
+
+            return ResponseEntity.ok(response);
+        });
     }
 
 }
@@ -0,0 +1,62 @@
+package com.example.auracontrol.booking.controller;
+
+import com.example.auracontrol.booking.dto.BookingRequest;
+import com.example.auracontrol.booking.dto.BookingTicketDto;
+import com.example.auracontrol.booking.service.BookingIntakeService;
+import com.example.auracontrol.shared.idempotency.IdempotencyService;
+import com.example.auracontrol.shared.security.AuthenticatedUser;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Queued bookings, see {@link BookingIntakeService}. Only mapped when app.booking-intake.enabled is set.
+ */
+@RestController
+@RequestMapping("/api/booking")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.booking-intake.enabled", havingValue = "true")
+public class BookingIntakeController {
+    private final BookingIntakeService bookingIntakeService;
+    private final IdempotencyService idempotencyService;
+
+    // POST /api/booking/async -> 202 with a ticket; poll or stream it until CONFIRMED, REJECTED or FAILED
+    @PostMapping("/async")
+    public ResponseEntity<?> submitBooking(
+            @RequestBody @Valid BookingRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) {
+        return idempotencyService.execute(idempotencyKey, principal.getUserId(), "create_async", request, () -> {
+            BookingTicketDto ticket = bookingIntakeService.submit(request, principal.getUserId(), principal.getCustomerId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, "/api/booking/tickets/" + ticket.getTicketId())
+                    .body(ticket);
+        });
+    }
+
+    // GET /api/booking/tickets/{ticketId}
+    @GetMapping("/tickets/{ticketId}")
+    public ResponseEntity<BookingTicketDto> getTicket(
+            @PathVariable String ticketId,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) {
+        return ResponseEntity.ok(bookingIntakeService.get(ticketId, principal.getUserId()));
+    }
+
+    // GET /api/booking/tickets/{ticketId}/stream: "ticket" events until the booking is processed
+    @GetMapping(path = "/tickets/{ticketId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTicket(
+            @PathVariable String ticketId,
+            @AuthenticationPrincipal AuthenticatedUser principal
+    ) {
+        return bookingIntakeService.stream(ticketId, principal.getUserId());
+    }
+}
@@ -1,15 +1,15 @@
 package com.example.auracontrol.booking.controller;
 
 import com.example.auracontrol.booking.service.AppointmentService;
+import com.example.auracontrol.shared.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.security.Principal;
-
 @RestController
 @RequestMapping("/api/technician/appointments")
 @RequiredArgsConstructor
@@ -19,9 +19,9 @@ public class TechnicianAppointmentController {
     @PatchMapping("/{id}/confirm")
     public ResponseEntity<?> confirmAppointment(
             @PathVariable Integer id,
-            Principal principal
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
-        appointmentService.confirmAppointment(id, principal.getName());
+        appointmentService.confirmAppointment(id, principal.getTechnicianId());
         return ResponseEntity.ok("Appointment confirmed successfully");
     }
 
@@ -29,9 +29,9 @@ public class TechnicianAppointmentController {
     @PatchMapping("/{id}/complete")
     public ResponseEntity<?> completeAppointment(
             @PathVariable Integer id,
-            Principal principal
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
-        appointmentService.completeAppointment(id, principal.getName());
+        appointmentService.completeAppointment(id, principal.getTechnicianId());
         return ResponseEntity.ok("Appointment marked as completed");
     }
 
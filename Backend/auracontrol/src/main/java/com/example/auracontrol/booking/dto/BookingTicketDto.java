@@ -0,0 +1,18 @@
+package com.example.auracontrol.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class BookingTicketDto {
+    private String ticketId;
+    private String status; // QUEUED, PROCESSING, CONFIRMED, REJECTED, FAILED
+    private Integer appointmentId;
+    private LocalDateTime startTime;
+    private String message;
+    private LocalDateTime queuedAt;
+    private LocalDateTime completedAt;
+}
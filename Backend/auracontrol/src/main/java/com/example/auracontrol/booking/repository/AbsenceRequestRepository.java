@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 @Repository
 public interface AbsenceRequestRepository extends JpaRepository<AbsenceRequest, Integer> {
     // 1. Find absence requests by status (used for Admin approval)
@@ -46,5 +47,8 @@ public interface AbsenceRequestRepository extends JpaRepository<AbsenceRequest,
 
     Page<AbsenceRequest> findByStatus(String status, Pageable pageable);
 
+    @Query("SELECT ar FROM AbsenceRequest ar JOIN FETCH ar.technician WHERE ar.requestId = :id")
+    Optional<AbsenceRequest> findWithTechnicianById(@Param("id") Integer id);
+
 
 }
@@ -0,0 +1,68 @@
+package com.example.auracontrol.booking.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Forward-only read of appointments for exports.
+ *
+ * <p>Rows are handed to the callback one at a time and never collected. Inside a transaction
+ * the Postgres driver fetches {@code fetchSize} rows per round trip through a server-side
+ * cursor, so memory use does not depend on how many rows match.</p>
+ */
+@Repository
+public class AppointmentExportRepository {
+    static final int FETCH_SIZE = 2_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AppointmentExportRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    /**
+     * Columns: appointment_id, start_time, end_time, status, final_price, service_name,
+     * customer_name, customer_email, technician_name; ordered by (start_time, appointment_id).
+     *
+     * @param from   inclusive lower bound on start_time, or null
+     * @param to     exclusive upper bound on start_time, or null
+     * @param status exact status, or null for all
+     */
+    public void streamForExport(LocalDateTime from, LocalDateTime to, String status, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT a.appointment_id, a.start_time, a.end_time, a.status, a.final_price, " +
+                        "s.name AS service_name, u.name AS customer_name, u.email AS customer_email, " +
+                        "tu.name AS technician_name " +
+                        "FROM appointment a " +
+                        "JOIN customer c ON c.customer_id = a.customer_id " +
+                        "JOIN users u ON u.user_id = c.user_id " +
+                        "JOIN services s ON s.service_id = a.service_id " +
+                        "LEFT JOIN technician t ON t.technician_id = a.technician_id " +
+                        "LEFT JOIN users tu ON tu.user_id = t.user_id " +
+                        "WHERE 1 = 1");
+        List<Object> args = new ArrayList<>(3);
+        if (from != null) {
+            sql.append(" AND a.start_time >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND a.start_time < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        if (status != null) {
+            sql.append(" AND a.status = ?");
+            args.add(status);
+        }
+        sql.append(" ORDER BY a.start_time, a.appointment_id");
+
+        jdbcTemplate.query(sql.toString(), handler, args.toArray());
+    }
+}
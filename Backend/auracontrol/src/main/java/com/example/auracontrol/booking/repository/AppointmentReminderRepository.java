@@ -0,0 +1,101 @@
+package com.example.auracontrol.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Set-based queries for the reminder job, kept in plain JDBC so a page of
+ * appointments costs one select and one insert regardless of its size.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AppointmentReminderRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public record ReminderCandidate(
+            Integer appointmentId,
+            LocalDateTime startTime,
+            String customerEmail,
+            String customerName,
+            String serviceName,
+            String technicianName
+    ) {
+    }
+
+    /**
+     * One keyset page of CONFIRMED appointments starting in (windowStart, windowEnd] that have
+     * no reminder of this kind yet, ordered by (start_time, appointment_id).
+     * The range on start_time is served by idx_appt_today (start_time, status).
+     */
+    public List<ReminderCandidate> findDue(
+            String kind,
+            LocalDateTime windowStart,
+            LocalDateTime windowEnd,
+            LocalDateTime afterStartTime,
+            int afterAppointmentId,
+            int limit
+    ) {
+        return jdbcTemplate.query(
+                "SELECT a.appointment_id, a.start_time, u.email, u.name AS customer_name, " +
+                        "s.name AS service_name, tu.name AS technician_name " +
+                        "FROM appointment a " +
+                        "JOIN customer c ON c.customer_id = a.customer_id " +
+                        "JOIN users u ON u.user_id = c.user_id " +
+                        "JOIN services s ON s.service_id = a.service_id " +
+                        "LEFT JOIN technician t ON t.technician_id = a.technician_id " +
+                        "LEFT JOIN users tu ON tu.user_id = t.user_id " +
+                        "WHERE a.status = 'CONFIRMED' " +
+                        "AND a.start_time > ? AND a.start_time <= ? " +
+                        "AND (a.start_time, a.appointment_id) > (?, ?) " +
+                        "AND NOT EXISTS (SELECT 1 FROM appointment_reminder r " +
+                        "                WHERE r.appointment_id = a.appointment_id AND r.kind = ?) " +
+                        "ORDER BY a.start_time, a.appointment_id " +
+                        "LIMIT ?",
+                (rs, rowNum) -> new ReminderCandidate(
+                        rs.getInt("appointment_id"),
+                        rs.getTimestamp("start_time").toLocalDateTime(),
+                        rs.getString("email"),
+                        rs.getString("customer_name"),
+                        rs.getString("service_name"),
+                        rs.getString("technician_name")
+                ),
+                Timestamp.valueOf(windowStart),
+                Timestamp.valueOf(windowEnd),
+                Timestamp.valueOf(afterStartTime),
+                afterAppointmentId,
+                kind,
+                limit
+        );
+    }
+
+    /**
+     * Records the reminders in one statement and returns the appointment ids this call actually
+     * inserted; ids already recorded (e.g. by another node) are left out.
+     */
+    public List<Integer> markSent(String kind, long leadMinutes, List<Integer> appointmentIds, LocalDateTime sentAt) {
+        return jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            "INSERT INTO appointment_reminder (appointment_id, kind, due_at, sent_at) " +
+                                    "SELECT a.appointment_id, ?, a.start_time - make_interval(mins => ?), ? " +
+                                    "FROM appointment a WHERE a.appointment_id = ANY (?) " +
+                                    "ON CONFLICT DO NOTHING " +
+                                    "RETURNING appointment_id");
+                    Array ids = connection.createArrayOf("int4", appointmentIds.toArray());
+                    statement.setString(1, kind);
+                    statement.setInt(2, Math.toIntExact(leadMinutes));
+                    statement.setTimestamp(3, Timestamp.valueOf(sentAt));
+                    statement.setArray(4, ids);
+                    return statement;
+                },
+                (rs, rowNum) -> rs.getInt(1)
+        );
+    }
+}
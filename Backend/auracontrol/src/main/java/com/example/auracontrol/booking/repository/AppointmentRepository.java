@@ -14,6 +14,7 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Integer> {
@@ -45,6 +46,16 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Intege
             String status
     );
 
+    List<Appointment> findByCustomer_CustomerIdAndStatusInOrderByStartTimeAsc(
+            Integer customerId,
+            List<String> statuses
+    );
+
+    List<Appointment> findByCustomer_CustomerIdAndStatusOrderByStartTimeDesc(
+            Integer customerId,
+            String status
+    );
+
     long countByCustomer_CustomerId(Integer customerId);
 
     List<Appointment> findByCustomer_CustomerIdOrderByStartTimeDesc(Integer customerId);
@@ -87,6 +98,26 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Intege
     );
 
 
+    // Technician calendar: everything the calendar entry shows in one query
+    @Query("SELECT a FROM Appointment a " +
+            "JOIN FETCH a.customer c JOIN FETCH c.user " +
+            "JOIN FETCH a.service " +
+            "WHERE a.technician.technicianId = :techId " +
+            "AND a.status != 'CANCELLED' " +
+            "AND a.startTime < :to AND a.endTime > :from")
+    List<Appointment> findScheduleByTechnicianIdAndDateRange(
+            @Param("techId") Integer techId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    @Query("SELECT a FROM Appointment a " +
+            "JOIN FETCH a.customer c JOIN FETCH c.user " +
+            "JOIN FETCH a.service " +
+            "JOIN FETCH a.technician " +
+            "WHERE a.appointmentId = :id")
+    Optional<Appointment> findScheduleEntryById(@Param("id") Integer id);
+
     @Query(value = "SELECT * FROM v_upcoming_appointments ORDER BY start_time ASC LIMIT 10",
             nativeQuery = true)
     List<UpcomingAppointmentView> getUpcomingAppointmentsView();
@@ -11,6 +11,8 @@ import com.example.auracontrol.exception.InvalidRequestException;
 import com.example.auracontrol.exception.ResourceNotFoundException;
 import com.example.auracontrol.user.entity.Technician;
 import com.example.auracontrol.user.repository.TechnicianRepository;
+import com.example.auracontrol.shared.cache.CacheTopics;
+import com.example.auracontrol.shared.cache.InvalidationBus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -29,6 +31,7 @@ public class AbsenceRequestService {
     private final AbsenceRequestRepository absenceRequestRepository;
     private final TechnicianRepository technicianRepository;
     private final AppointmentRepository appointmentRepository;
+    private final InvalidationBus invalidationBus;
 
     @Transactional
     public AbsenceRequest submitRequest(Integer technicianId, AbsenceRequestDto requestDto) {
@@ -65,7 +68,9 @@ public class AbsenceRequestService {
                 .status("PENDING")
                 .build();
 
-        return absenceRequestRepository.save(absence);
+        AbsenceRequest saved = absenceRequestRepository.save(absence);
+        invalidationBus.publish(CacheTopics.ABSENCE, saved.getRequestId());
+        return saved;
     }
     public Page<AbsenceRequestResponse> getRequestsForAdmin(String status, int page, int size) {
 
@@ -94,6 +99,7 @@ public class AbsenceRequestService {
 
         request.setStatus(status);
         absenceRequestRepository.save(request);
+        invalidationBus.publish(CacheTopics.ABSENCE, requestId);
     }
 
 
@@ -0,0 +1,180 @@
+package com.example.auracontrol.booking.service;
+
+import com.example.auracontrol.booking.repository.AppointmentExportRepository;
+import com.example.auracontrol.exception.InvalidRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+
+/**
+ * CSV export of appointments for finance.
+ *
+ * <p>The rows go from a JDBC cursor through a buffered writer straight into the response,
+ * one at a time, so a 5M row export needs the same memory as a 1k row one. The read runs
+ * in one read-only transaction (required for the cursor), which the replica takes when configured.</p>
+ */
+@Service
+public class AppointmentExportService {
+
+    private static final Set<String> STATUSES = Set.of("PENDING", "CONFIRMED", "CANCELLED", "COMPLETED");
+    private static final String HEADER =
+            "appointment_id,start_time,end_time,status,price,service,customer_name,customer_email,technician_name\r\n";
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final int FLUSH_EVERY = 5_000;
+
+    private final AppointmentExportRepository exportRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer exportTimer;
+    private final Counter exportedRows;
+
+    public AppointmentExportService(AppointmentExportRepository exportRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.exportRepository = exportRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setName(AppointmentExportService.class.getName() + ".exportCsv");
+        this.exportTimer = Timer.builder("export.appointments")
+                .description("Duration of appointment CSV exports")
+                .register(meterRegistry);
+        this.exportedRows = Counter.builder("export.appointments.rows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Validates the filters right away and returns the body that runs the export
+     * on the async request thread.
+     *
+     * @param from first day included, or null
+     * @param to   last day included, or null
+     */
+    public StreamingResponseBody exportCsv(LocalDate from, LocalDate to, String status) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new InvalidRequestException("Export range end must not be before its start");
+        }
+        String normalizedStatus = status == null || status.isBlank() ? null : status.trim().toUpperCase();
+        if (normalizedStatus != null && !STATUSES.contains(normalizedStatus)) {
+            throw new InvalidRequestException("Invalid status: " + status + ", expected one of " + STATUSES);
+        }
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            // BOM so spreadsheet tools read the Vietnamese names as UTF-8
+            writer.write('\uFEFF');
+            writer.write(HEADER);
+
+            Timer.Sample sample = Timer.start();
+            try {
+                readOnlyTransaction.executeWithoutResult(tx -> exportRepository.streamForExport(
+                        from != null ? from.atStartOfDay() : null,
+                        to != null ? to.plusDays(1).atStartOfDay() : null,
+                        normalizedStatus,
+                        new RowWriter(writer)));
+            } catch (UncheckedIOException e) {
+                // Client disconnected mid-export; the transaction and cursor are already closed
+                throw e.getCause();
+            } finally {
+                sample.stop(exportTimer);
+            }
+            writer.flush();
+        };
+    }
+
+    private final class RowWriter implements RowCallbackHandler {
+        private final Writer writer;
+        private final StringBuilder line = new StringBuilder(256);
+        private int rows;
+
+        private RowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            line.setLength(0);
+            line.append(rs.getInt("appointment_id")).append(',');
+            appendTimestamp(rs.getTimestamp("start_time"));
+            line.append(',');
+            appendTimestamp(rs.getTimestamp("end_time"));
+            line.append(',');
+            appendText(rs.getString("status"));
+            line.append(',');
+            BigDecimal price = rs.getBigDecimal("final_price");
+            if (price != null) {
+                line.append(price.toPlainString());
+            }
+            line.append(',');
+            appendText(rs.getString("service_name"));
+            line.append(',');
+            appendText(rs.getString("customer_name"));
+            line.append(',');
+            appendText(rs.getString("customer_email"));
+            line.append(',');
+            appendText(rs.getString("technician_name"));
+            line.append("\r\n");
+
+            try {
+                writer.append(line);
+                if (++rows % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            exportedRows.increment();
+        }
+
+        private void appendTimestamp(Timestamp timestamp) {
+            if (timestamp != null) {
+                line.append(DATE_TIME.format(timestamp.toLocalDateTime()));
+            }
+        }
+
+        /**
+         * RFC 4180 quoting; values that a spreadsheet would evaluate as a formula get a leading quote.
+         */
+        private void appendText(String value) {
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            boolean formula = "=+-@\t\r".indexOf(value.charAt(0)) >= 0;
+            boolean quote = formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                line.append(value);
+                return;
+            }
+            line.append('"');
+            if (formula) {
+                line.append('\'');
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            line.append('"');
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.auracontrol.booking.service;
+
+import com.example.auracontrol.booking.repository.AppointmentReminderRepository;
+import com.example.auracontrol.booking.repository.AppointmentReminderRepository.ReminderCandidate;
+import com.example.auracontrol.shared.email.EmailComposer;
+import com.example.auracontrol.shared.email.OutboundEmail;
+import com.example.auracontrol.shared.scheduling.AdvisoryLockLeader;
+import com.example.auracontrol.shared.service.EmailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Enqueues 24h and 2h reminder emails for CONFIRMED appointments.
+ *
+ * <p>Every run walks each reminder window with keyset-paged queries. A page is recorded in
+ * appointment_reminder with one INSERT and handed to the email outbox with one batch insert,
+ * in the same transaction. Only the node holding the advisory lock runs; the primary key on
+ * appointment_reminder keeps enqueueing idempotent even if two runs overlap.</p>
+ */
+@Service
+public class AppointmentReminderService {
+    private static final Logger log = LoggerFactory.getLogger(AppointmentReminderService.class);
+
+    // Arbitrary, application-wide key for pg_try_advisory_lock
+    private static final long LEADER_LOCK_KEY = 7_301_024_001L;
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("HH:mm, dd/MM/yyyy");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final AppointmentReminderRepository reminderRepository;
+    private final EmailService emailService;
+    private final AdvisoryLockLeader leader;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int pageSize;
+
+    private final Map<ReminderKind, Timer> lag = new EnumMap<>(ReminderKind.class);
+    private final Map<ReminderKind, Counter> enqueued = new EnumMap<>(ReminderKind.class);
+
+    public AppointmentReminderService(
+            AppointmentReminderRepository reminderRepository,
+            EmailService emailService,
+            AdvisoryLockLeader leader,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.reminders.enabled:true}") boolean enabled,
+            @Value("${app.reminders.page-size:500}") int pageSize
+    ) {
+        this.reminderRepository = reminderRepository;
+        this.emailService = emailService;
+        this.leader = leader;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+
+        for (ReminderKind kind : ReminderKind.values()) {
+            lag.put(kind, Timer.builder("reminder.lag")
+                    .description("Delay between a reminder's due time and its hand-off to the email outbox")
+                    .tag("kind", kind.name())
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+            enqueued.put(kind, Counter.builder("reminder.enqueued")
+                    .tag("kind", kind.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.reminders.poll-interval-ms:60000}",
+            initialDelayString = "${app.reminders.initial-delay-ms:30000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean leaderRun = leader.runIfLeader(LEADER_LOCK_KEY, () -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (ReminderKind kind : ReminderKind.values()) {
+                int count = processKind(kind, now);
+                if (count > 0) {
+                    log.info("Enqueued {} {} appointment reminders", count, kind);
+                }
+            }
+        });
+        sample.stop(meterRegistry.timer("reminder.run", "leader", String.valueOf(leaderRun)));
+    }
+
+    private int processKind(ReminderKind kind, LocalDateTime now) {
+        // Appointments inside the next, shorter lead time only get that reminder
+        LocalDateTime windowStart = now.plus(kind.getNextLead());
+        LocalDateTime windowEnd = now.plus(kind.getLead());
+
+        LocalDateTime afterStartTime = windowStart;
+        int afterAppointmentId = 0;
+        int total = 0;
+        while (true) {
+            List<ReminderCandidate> page = reminderRepository.findDue(
+                    kind.name(), windowStart, windowEnd, afterStartTime, afterAppointmentId, pageSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            Integer sent = transactionTemplate.execute(status -> enqueuePage(kind, page, now));
+            total += sent != null ? sent : 0;
+
+            ReminderCandidate last = page.get(page.size() - 1);
+            afterStartTime = last.startTime();
+            afterAppointmentId = last.appointmentId();
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int enqueuePage(ReminderKind kind, List<ReminderCandidate> page, LocalDateTime now) {
+        List<Integer> ids = page.stream().map(ReminderCandidate::appointmentId).toList();
+        Set<Integer> claimed = new HashSet<>(
+                reminderRepository.markSent(kind.name(), kind.getLead().toMinutes(), ids, now));
+
+        List<OutboundEmail> emails = new ArrayList<>(claimed.size());
+        for (ReminderCandidate candidate : page) {
+            if (!claimed.contains(candidate.appointmentId())) {
+                continue;
+            }
+            emails.add(new OutboundEmail(candidate.customerEmail(), variables(candidate, now.toLocalDate())));
+            Duration delay = Duration.between(candidate.startTime().minus(kind.getLead()), now);
+            lag.get(kind).record(delay.isNegative() ? Duration.ZERO : delay);
+        }
+        emailService.enqueueBatch(EmailComposer.APPOINTMENT_REMINDER, emails);
+        enqueued.get(kind).increment(emails.size());
+        return emails.size();
+    }
+
+    private static Map<String, String> variables(ReminderCandidate candidate, LocalDate today) {
+        LocalDate day = candidate.startTime().toLocalDate();
+        String when;
+        if (day.equals(today)) {
+            when = "today at " + candidate.startTime().format(TIME);
+        } else if (day.equals(today.plusDays(1))) {
+            when = "tomorrow at " + candidate.startTime().format(TIME);
+        } else {
+            when = "on " + day.format(DATE) + " at " + candidate.startTime().format(TIME);
+        }
+        return Map.of(
+                "name", candidate.customerName() != null ? candidate.customerName() : "",
+                "serviceName", candidate.serviceName(),
+                "technicianName", candidate.technicianName() != null ? candidate.technicianName() : "Arranging",
+                "startTime", candidate.startTime().format(DATE_TIME),
+                "when", when
+        );
+    }
+}
@@ -14,12 +14,15 @@ import com.example.auracontrol.service.ServiceRepository;
 import com.example.auracontrol.user.entity.Customer;
 import com.example.auracontrol.user.entity.Technician;
 import com.example.auracontrol.user.repository.TechnicianRepository;
+import com.example.auracontrol.shared.cache.CacheTopics;
+import com.example.auracontrol.shared.cache.InvalidationBus;
+import com.example.auracontrol.shared.retry.RetryOnConflict;
+import com.example.auracontrol.shared.retry.SqlConflicts;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +30,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,6 +46,10 @@ public class AppointmentService {
     private final ResourceRepository resourceRepository;
     private final AppointmentResourceRepository appointmentResourceRepository;
     private final AbsenceRequestRepository absenceRequestRepository;
+    private final BookingMetrics bookingMetrics;
+    private final InvalidationBus invalidationBus;
+    private final SlotQueryExecutor slotQueryExecutor;
+    private final AvailableSlotsFlight availableSlotsFlight;
 
     /**
      * Get list of available technicians for a given service and time.
@@ -54,24 +62,34 @@ public class AppointmentService {
     /**
      * Create a new appointment.
      * This method handles:
-     *  - Customer identification
+     *  - Customer reference (id resolved at authentication time)
      *  - Technician selection (manual or auto-assign)
      *  - Resource allocation (room/equipment)
      *  - Appointment persistence
      *
      * The whole process runs inside a transaction.
      */
+    @RetryOnConflict(BookingMetrics.CREATE)
     @Transactional(rollbackFor = Exception.class)
-    public Appointment createAppointment(BookingRequest request) {
+    public Appointment createAppointment(BookingRequest request, Integer customerId) {
+        BookingMetrics.Stopwatch stopwatch = bookingMetrics.start(BookingMetrics.CREATE);
+        try {
+            Appointment appointment = createAppointment(request, customerId, stopwatch);
+            stopwatch.success();
+            return appointment;
+        } catch (RuntimeException e) {
+            stopwatch.failure(e);
+            throw e;
+        }
+    }
 
-        // 1. Get currently authenticated customer
-        String currentUserEmail = SecurityContextHolder
-                .getContext()
-                .getAuthentication()
-                .getName();
+    private Appointment createAppointment(BookingRequest request, Integer customerId, BookingMetrics.Stopwatch stopwatch) {
 
-        Customer customer = customerRepository.findByUserEmail(currentUserEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer not found with email: " + currentUserEmail));
+        // 1. Customer of the authenticated principal; a reference is enough to set the FK
+        if (customerId == null) {
+            throw new ResourceNotFoundException("Customer profile not found for current user");
+        }
+        Customer customer = customerRepository.getReferenceById(customerId);
 
         // 2. Get service information
         var service = serviceRepository.findById(request.getServiceId())
@@ -86,6 +104,7 @@ public class AppointmentService {
                         request.getServiceId(),
                         request.getStartTime()
                 );
+        stopwatch.lap("technician_lookup");
 
         if (request.getTechnicianId() != null) {
             // Case 1: Customer selects a specific technician
@@ -95,18 +114,18 @@ public class AppointmentService {
                     );
 
             if (!isAvailable) {
+                bookingMetrics.rejected(BookingMetrics.CREATE, BookingRejectionReason.TECHNICIAN_BUSY, "check");
                 throw new ResourceNotFoundException(
                         "Selected technician is busy or not qualified."
                 );
             }
 
-            technician = technicianRepository.findById(request.getTechnicianId())
-                    .orElseThrow(() ->
-                            new ResourceNotFoundException("Technician not found")
-                    );
+            // Existence already confirmed by get_available_technicians
+            technician = technicianRepository.getReferenceById(request.getTechnicianId());
         } else {
             // Case 2: Auto-assign a technician randomly
             if (availableTechs.isEmpty()) {
+                bookingMetrics.rejected(BookingMetrics.CREATE, BookingRejectionReason.TECHNICIAN_BUSY, "check");
                 throw new ResourceNotFoundException(
                         "No available technician for this time slot."
                 );
@@ -115,10 +134,7 @@ public class AppointmentService {
             int randomIndex = new Random().nextInt(availableTechs.size());
             TechnicianOptionDto selectedDto = availableTechs.get(randomIndex);
 
-            technician = technicianRepository.findById(selectedDto.getTechnicianId())
-                    .orElseThrow(() ->
-                            new ResourceNotFoundException("Auto-assigned technician not found")
-                    );
+            technician = technicianRepository.getReferenceById(selectedDto.getTechnicianId());
         }
 
 
@@ -141,16 +157,19 @@ public class AppointmentService {
 
                 Resource foundResource = resourceRepository
                         .findFirstAvailableByType(requiredType, busyIds)
-                        .orElseThrow(() ->
-                                new ResourceNotFoundException(
-                                        "Hiện tại không đủ tài nguyên loại: " + requiredType
-                                )
-                        );
+                        .orElse(null);
 
+                if (foundResource == null) {
+                    bookingMetrics.rejected(BookingMetrics.CREATE, BookingRejectionReason.NO_RESOURCES, "check");
+                    throw new ResourceNotFoundException(
+                            "Hiện tại không đủ tài nguyên loại: " + requiredType
+                    );
+                }
 
                 busyIds.add(foundResource.getResourceId());
             }
         }
+        stopwatch.lap("resource_search");
 
         Appointment appointment = new Appointment();
         appointment.setCustomer(customer);
@@ -164,33 +183,45 @@ public class AppointmentService {
 
         appointment.setStatus("CONFIRMED");
 
-        return appointmentRepository.save(appointment);
+        // IDENTITY ids make save() run the INSERT right away, so this stage includes
+        // trg_validate_appointment and trg_auto_assign_resource
+        try {
+            Appointment saved = appointmentRepository.save(appointment);
+            stopwatch.lap("insert");
+            invalidationBus.publish(CacheTopics.APPOINTMENT, saved.getAppointmentId());
+            return saved;
+        } catch (RuntimeException e) {
+            bookingMetrics.triggerRejected(BookingMetrics.CREATE, e);
+            throw e;
+        }
     }
 
     /**
      * Get available time slots for a service on a specific date.
      * Time slots are checked every 15 minutes between 09:00 and 21:00.
+     * Identical searches running at the same time share one computation (see {@link AvailableSlotsFlight}).
      */
     public List<String> getAvailableSlots(Integer serviceId, LocalDate date) {
-        List<String> availableSlots = new ArrayList<>();
+        return availableSlotsFlight.execute(new AvailableSlotsFlight.Query(serviceId, date),
+                () -> computeAvailableSlots(serviceId, date));
+    }
 
-        // Get service duration
-        var service = serviceRepository.findById(serviceId)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Service not found")
-                );
-        if (service.getIsActive() == null || !service.getIsActive()) {
-            throw new ResourceNotFoundException("Service is inactive");
+    private List<String> computeAvailableSlots(Integer serviceId, LocalDate date) {
+        BookingMetrics.Stopwatch stopwatch = bookingMetrics.start(BookingMetrics.AVAILABLE_SLOTS);
+        try {
+            // Shared between the coalesced callers, so nobody may modify it
+            List<String> slots = List.copyOf(getAvailableSlots(serviceId, date, stopwatch));
+            stopwatch.success();
+            return slots;
+        } catch (RuntimeException e) {
+            stopwatch.failure(e);
+            throw e;
         }
-        int durationMinutes = service.getDurationMinutes();
+    }
 
-        // If no technician can perform this service, return empty list
-        List<Technician> skilledTechs =
-                technicianRepository.findAllByServiceId(serviceId);
+    private List<String> getAvailableSlots(Integer serviceId, LocalDate date, BookingMetrics.Stopwatch stopwatch) {
+        List<String> availableSlots = new ArrayList<>();
 
-        if (skilledTechs.isEmpty()) {
-            return availableSlots;
-        }
         LocalDateTime lunchStart = date.atTime(12, 0);
         LocalDateTime lunchEnd   = date.atTime(14, 0);
 
@@ -198,50 +229,74 @@ public class AppointmentService {
         LocalDateTime startOfDay = date.atTime(0, 0, 0);
         LocalDateTime endOfDay = date.atTime(23, 59, 59);
 
-        List<Appointment> todaysAppointments =
-                appointmentRepository.findAllByStartTimeBetweenAndStatusNot(
+        // The service and its technicians are read side by side; the day's absences, appointments and
+        // resource usage only matter for an active service that some technician qualifies for, so they
+        // start once both are known and an invalid search costs just these two reads
+        var serviceLookup = slotQueryExecutor.supply(() -> serviceRepository.findById(serviceId));
+        CompletableFuture<List<Technician>> technicianLookup =
+                slotQueryExecutor.supply(() -> technicianRepository.findAllByServiceId(serviceId));
+        CompletableFuture<List<Technician>> bookableTechs = serviceLookup.thenCombine(technicianLookup,
+                (found, techs) -> found.filter(s -> Boolean.TRUE.equals(s.getIsActive())).isPresent()
+                        ? techs
+                        : List.<Technician>of());
+        CompletableFuture<List<AbsenceRequest>> absenceLookup = bookableTechs.thenCompose(techs -> techs.isEmpty()
+                ? CompletableFuture.completedFuture(List.<AbsenceRequest>of())
+                : slotQueryExecutor.supply(() -> absenceRequestRepository.findByTechnicianIdInAndStatusAndDateRange(
+                        techs.stream().map(Technician::getTechnicianId).collect(Collectors.toList()),
+                        "APPROVED",
+                        startOfDay,
+                        endOfDay
+                )));
+        CompletableFuture<List<Appointment>> appointmentLookup = bookableTechs.thenCompose(techs -> techs.isEmpty()
+                ? CompletableFuture.completedFuture(List.<Appointment>of())
+                : slotQueryExecutor.supply(() -> appointmentRepository.findAllByStartTimeBetweenAndStatusNot(
                         startOfDay,
                         endOfDay,
                         "CANCELLED"
-                );
-        List<Integer> skilledTechIds = skilledTechs.stream()
-                .map(Technician::getTechnicianId)
-                .collect(Collectors.toList());
+                )));
+        CompletableFuture<ResourceUsage> resourceLookup = bookableTechs.thenCompose(techs -> techs.isEmpty()
+                ? CompletableFuture.completedFuture(ResourceUsage.NONE)
+                : slotQueryExecutor
+                        .supply(() -> serviceResourceRequirementRepository.findAllByService_ServiceId(serviceId))
+                        .thenCompose(reqs -> loadResourceUsage(reqs, startOfDay, endOfDay)));
 
-        List<AbsenceRequest> todaysAbsences = absenceRequestRepository
-                .findByTechnicianIdInAndStatusAndDateRange(
-                        skilledTechIds,
-                        "APPROVED",
-                        startOfDay,
-                        endOfDay
+        // Get service duration
+        var service = SlotQueryExecutor.join(serviceLookup)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("Service not found")
                 );
+        if (service.getIsActive() == null || !service.getIsActive()) {
+            throw new ResourceNotFoundException("Service is inactive");
+        }
+        int durationMinutes = service.getDurationMinutes();
 
-        // Resource-related preparation
-        List<ServiceResourceRequirement> requirements = serviceResourceRequirementRepository.findAllByService_ServiceId(serviceId);
-
-        Map<String, Long> resourceTotalMap = new HashMap<>();
-
-        Map<String, List<Appointment>> resourceUsageMap = new HashMap<>();
-        if (!requirements.isEmpty()) {
-            for (ServiceResourceRequirement req : requirements) {
-                String type = req.getResourceType();
-
-                if (!resourceTotalMap.containsKey(type)) {
-                    resourceTotalMap.put(type, resourceRepository.countByType(type));
-                }
+        // If no technician can perform this service, return empty list
+        List<Technician> skilledTechs = SlotQueryExecutor.join(technicianLookup);
+        List<Appointment> todaysAppointments = SlotQueryExecutor.join(appointmentLookup);
+        List<AbsenceRequest> todaysAbsences = SlotQueryExecutor.join(absenceLookup);
+        ResourceUsage resourceUsage = SlotQueryExecutor.join(resourceLookup);
+        stopwatch.lap("lookup");
+        bookingMetrics.slotEngineSize("technicians", skilledTechs.size());
 
-                if (!resourceUsageMap.containsKey(type)) {
-                    resourceUsageMap.put(type, appointmentResourceRepository.findAppointmentsByResourceTypeAndDate(type, startOfDay, endOfDay));
-                }
-            }
+        if (skilledTechs.isEmpty()) {
+            return availableSlots;
         }
+        bookingMetrics.slotEngineSize("appointments", todaysAppointments.size());
+        bookingMetrics.slotEngineSize("absences", todaysAbsences.size());
+
+        // Resource-related preparation
+        List<ServiceResourceRequirement> requirements = resourceUsage.requirements();
+        Map<String, Long> resourceTotalMap = resourceUsage.totals();
+        Map<String, List<Appointment>> resourceUsageMap = resourceUsage.appointments();
 
         // Iterate through time slots (09:00 -> 21:00)
         LocalDateTime currentSlot = date.atTime(9, 0);
         LocalDateTime closingTime = date.atTime(21, 0);
+        int evaluatedSlots = 0;
 
         while (!currentSlot.plusMinutes(durationMinutes).isAfter(closingTime)) {
             LocalDateTime slotEnd = currentSlot.plusMinutes(durationMinutes);
+            evaluatedSlots++;
 
             if (currentSlot.isBefore(lunchEnd) && slotEnd.isAfter(lunchStart)) {
                 currentSlot = currentSlot.plusMinutes(15);
@@ -299,6 +354,9 @@ public class AppointmentService {
 
             currentSlot = currentSlot.plusMinutes(15);
         }
+        stopwatch.lap("slot_evaluation");
+        bookingMetrics.slotEngineSize("evaluated", evaluatedSlots);
+        bookingMetrics.slotEngineSize("available", availableSlots.size());
 
         return availableSlots;
     }
@@ -306,12 +364,12 @@ public class AppointmentService {
      * Get upcoming appointment for customer.
      * Only shows PENDING and CONFIRMED appointments.
      */
-    public List<BookingResponseDto> getUpcomingAppointments(String userEmail) {
+    public List<BookingResponseDto> getUpcomingAppointments(Integer customerId) {
         List<String> activeStatuses = List.of("PENDING", "CONFIRMED");
 
         List<Appointment> appointments = appointmentRepository
-                .findByCustomer_User_EmailAndStatusInOrderByStartTimeAsc(
-                        userEmail,
+                .findByCustomer_CustomerIdAndStatusInOrderByStartTimeAsc(
+                        customerId,
                         activeStatuses
                 );
         return appointments.stream()
@@ -333,14 +391,14 @@ public class AppointmentService {
      * 2. Cannot cancel if already cancelled.
      * 3. Cannot cancel within 30 minutes of start time.
      */
+    @RetryOnConflict("cancel")
     @Transactional(rollbackFor = Exception.class)
-    public void cancelAppointment(Integer appointmentId, String currentUserEmail) {
+    public void cancelAppointment(Integer appointmentId, Integer customerId) {
 
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with id: " + appointmentId));
 
-        String ownerEmail = appointment.getCustomer().getUser().getEmail();
-        if (!ownerEmail.equals(currentUserEmail)) {
+        if (!appointment.getCustomer().getCustomerId().equals(customerId)) {
             throw new InvalidRequestException("Unauthorized: You are not the owner of this appointment.");
         }
 
@@ -358,15 +416,17 @@ public class AppointmentService {
         appointment.setStatus("CANCELLED");
 
         appointmentRepository.save(appointment);
+        invalidationBus.publish(CacheTopics.APPOINTMENT, appointmentId);
     }
     /**
      * Get past appointments (History).
      * Only shows COMPLETED appointments.
      */
-    public List<BookingResponseDto> getAppointmentHistory(String userEmail) {
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getAppointmentHistory(Integer customerId) {
         List<Appointment> appointments = appointmentRepository
-                .findByCustomer_User_EmailAndStatusOrderByStartTimeDesc(
-                        userEmail,
+                .findByCustomer_CustomerIdAndStatusOrderByStartTimeDesc(
+                        customerId,
                         "COMPLETED"
                 );
 
@@ -383,15 +443,16 @@ public class AppointmentService {
                 .collect(Collectors.toList());
     }
     @Transactional
-    public void confirmAppointment(Integer appointmentId, String userEmail) {
+    public void confirmAppointment(Integer appointmentId, Integer technicianId) {
 
-        Technician currentTech = technicianRepository.findByUser_EmailAndUser_EnabledTrue(userEmail)
-                .orElseThrow(() -> new AccessDeniedException("You are not a valid technician"));
+        if (technicianId == null) {
+            throw new AccessDeniedException("You are not a valid technician");
+        }
 
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found"));
 
-        if (!currentTech.getTechnicianId().equals(appointment.getTechnician().getTechnicianId())) {
+        if (!technicianId.equals(appointment.getTechnician().getTechnicianId())) {
             throw new AccessDeniedException("You are not allowed to operate on another technician's appointment");
         }
 
@@ -401,6 +462,7 @@ public class AppointmentService {
 
         appointment.setStatus("CONFIRMED");
         appointmentRepository.save(appointment);
+        invalidationBus.publish(CacheTopics.APPOINTMENT, appointmentId);
     }
 
     /**
@@ -419,19 +481,38 @@ public class AppointmentService {
      *    - Releases previously assigned resources
      *    - Automatically assigns new available resources
      */
+    @RetryOnConflict(BookingMetrics.RESCHEDULE)
     @Transactional(rollbackFor = Exception.class)
     public Appointment rescheduleAppointment(
             Integer appointmentId,
             LocalDateTime newStartTime,
-            String currentUserEmail
+            Integer customerId
+    ) {
+        BookingMetrics.Stopwatch stopwatch = bookingMetrics.start(BookingMetrics.RESCHEDULE);
+        try {
+            Appointment appointment = rescheduleAppointment(appointmentId, newStartTime, customerId, stopwatch);
+            stopwatch.success();
+            return appointment;
+        } catch (RuntimeException e) {
+            stopwatch.failure(e);
+            throw e;
+        }
+    }
+
+    private Appointment rescheduleAppointment(
+            Integer appointmentId,
+            LocalDateTime newStartTime,
+            Integer customerId,
+            BookingMetrics.Stopwatch stopwatch
     ) {
 
         // 1. Retrieve appointment
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found"));
+        stopwatch.lap("appointment_lookup");
 
         // 2. Ownership validation (Security check)
-        if (!appointment.getCustomer().getUser().getEmail().equals(currentUserEmail)) {
+        if (!appointment.getCustomer().getCustomerId().equals(customerId)) {
             throw new InvalidRequestException("Unauthorized: You are not the owner of this appointment.");
         }
 
@@ -460,56 +541,64 @@ public class AppointmentService {
             return appointment;
         }
 
+        stopwatch.lap("validation");
+
         // 5. Apply new start time
         appointment.setStartTime(newStartTime);
 
         try {
             // 6. Persist and flush to trigger DB validations immediately
             Appointment updatedAppointment = appointmentRepository.saveAndFlush(appointment);
+            stopwatch.lap("update");
+            invalidationBus.publish(CacheTopics.APPOINTMENT, appointmentId);
             return updatedAppointment;
 
         } catch (Exception e) {
+            // Deadlocks and lock timeouts go back to @RetryOnConflict untouched
+            if (SqlConflicts.isRetryable(e)) {
+                throw e;
+            }
+
             // 7. Handle PostgreSQL trigger exceptions
             // Possible trigger messages:
             // - 'Technician is not available...'
             // - 'Technician is on approved leave...'
             // - 'Not enough resources...'
 
+            BookingRejectionReason reason = bookingMetrics.triggerRejected(BookingMetrics.RESCHEDULE, e);
+
+            if (reason == BookingRejectionReason.TECHNICIAN_BUSY) {
+                throw new DuplicateResourceException("Technician is busy at the selected time.");
+            }
+            if (reason == BookingRejectionReason.TECHNICIAN_ON_LEAVE) {
+                throw new DuplicateResourceException("Technician is on leave at the selected time.");
+            }
+            if (reason == BookingRejectionReason.NO_RESOURCES) {
+                throw new DuplicateResourceException("No available room or equipment at the new time.");
+            }
+
             Throwable rootCause = e;
             while (rootCause.getCause() != null && rootCause.getCause() != rootCause) {
                 rootCause = rootCause.getCause();
             }
 
-            String message = rootCause.getMessage();
-
-            if (message != null) {
-                if (message.contains("Technician is not available")) {
-                    throw new DuplicateResourceException("Technician is busy at the selected time.");
-                }
-                if (message.contains("Technician is on approved leave")) {
-                    throw new DuplicateResourceException("Technician is on leave at the selected time.");
-                }
-                if (message.contains("Not enough resources")) {
-                    throw new DuplicateResourceException("No available room or equipment at the new time.");
-                }
-            }
-
             // Unknown or unexpected error
-            throw new RuntimeException("Reschedule failed: " + message, e);
+            throw new RuntimeException("Reschedule failed: " + rootCause.getMessage(), e);
         }
     }
 
     // (COMPLETE)
     @Transactional
-    public void completeAppointment(Integer appointmentId, String userEmail) {
+    public void completeAppointment(Integer appointmentId, Integer technicianId) {
 
-        Technician currentTech = technicianRepository.findByUser_EmailAndUser_EnabledTrue(userEmail)
-                .orElseThrow(() -> new AccessDeniedException("You are not a valid technician"));
+        if (technicianId == null) {
+            throw new AccessDeniedException("You are not a valid technician");
+        }
 
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found"));
 
-        if (!currentTech.getTechnicianId().equals(appointment.getTechnician().getTechnicianId())) {
+        if (!technicianId.equals(appointment.getTechnician().getTechnicianId())) {
             throw new AccessDeniedException("You are not allowed to operate on this appointment");
         }
 
@@ -519,14 +608,16 @@ public class AppointmentService {
 
         appointment.setStatus("COMPLETED");
         appointmentRepository.save(appointment);
+        invalidationBus.publish(CacheTopics.APPOINTMENT, appointmentId);
     }
 
 
 
     /**
      * Helper method: count busy technicians during a time slot.
+     * Package-private and static so the slot benchmarks can call it without a service instance.
      */
-    private long countBusyTechnicians(
+    static long countBusyTechnicians(
             List<Technician> skilledTechs,
             List<Appointment> appointments,
             List<AbsenceRequest> absences,
@@ -554,6 +645,7 @@ public class AppointmentService {
         }).count();
     }
 
+    @Transactional(readOnly = true)
     public Page<AdminAppointmentDto> getAppointmentsForAdmin(String keyword, String status, int page, int size) {
 
         Pageable pageable = PageRequest.of(page, size);
@@ -561,7 +653,11 @@ public class AppointmentService {
         Page<Appointment> appointmentPage = appointmentRepository.findAppointmentsForAdmin(keyword, status, pageable);
 
 
-        return appointmentPage.map(appt -> AdminAppointmentDto.builder()
+        return appointmentPage.map(AppointmentService::toAdminDto);
+    }
+
+    static AdminAppointmentDto toAdminDto(Appointment appt) {
+        return AdminAppointmentDto.builder()
                 .appointmentId(appt.getAppointmentId())
 
                 .customerName(appt.getCustomer() != null ? appt.getCustomer().getUser().getName() : "Unknown")
@@ -578,13 +674,13 @@ public class AppointmentService {
                 .status(appt.getStatus())
                 .price(appt.getFinalPrice())
                 .note(appt.getNoteText())
-                .build());
+                .build();
     }
 
     /**
      * Helper method: count busy resources during a time slot.
      */
-    private long countBusyResources(
+    static long countBusyResources(
             List<Appointment> resourceAppts,
             LocalDateTime start,
             LocalDateTime end
@@ -600,4 +696,38 @@ public class AppointmentService {
                 )
                 .count();
     }
+
+    private record ResourceUsage(
+            List<ServiceResourceRequirement> requirements,
+            Map<String, Long> totals,
+            Map<String, List<Appointment>> appointments
+    ) {
+        static final ResourceUsage NONE = new ResourceUsage(List.of(), Map.of(), Map.of());
+    }
+
+    // One count and one usage query per required resource type, all in parallel
+    private CompletableFuture<ResourceUsage> loadResourceUsage(
+            List<ServiceResourceRequirement> requirements,
+            LocalDateTime startOfDay,
+            LocalDateTime endOfDay
+    ) {
+        Map<String, CompletableFuture<Long>> totals = new HashMap<>();
+        Map<String, CompletableFuture<List<Appointment>>> usage = new HashMap<>();
+        for (ServiceResourceRequirement req : requirements) {
+            String type = req.getResourceType();
+            totals.computeIfAbsent(type, t -> slotQueryExecutor.supply(() -> resourceRepository.countByType(t)));
+            usage.computeIfAbsent(type, t -> slotQueryExecutor.supply(() ->
+                    appointmentResourceRepository.findAppointmentsByResourceTypeAndDate(t, startOfDay, endOfDay)));
+        }
+
+        List<CompletableFuture<?>> all = new ArrayList<>(totals.values());
+        all.addAll(usage.values());
+        return CompletableFuture.allOf(all.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            Map<String, Long> resourceTotalMap = new HashMap<>();
+            totals.forEach((type, total) -> resourceTotalMap.put(type, total.join()));
+            Map<String, List<Appointment>> resourceUsageMap = new HashMap<>();
+            usage.forEach((type, appointments) -> resourceUsageMap.put(type, appointments.join()));
+            return new ResourceUsage(requirements, resourceTotalMap, resourceUsageMap);
+        });
+    }
 }
@@ -0,0 +1,27 @@
+package com.example.auracontrol.booking.service;
+
+import com.example.auracontrol.shared.concurrent.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Coalesces identical available-slot searches that arrive while one is already being computed,
+ * e.g. everyone opening tomorrow's calendar for the same service at once.
+ */
+@Component
+public class AvailableSlotsFlight extends SingleFlight<AvailableSlotsFlight.Query, List<String>> {
+
+    /**
+     * The normalised parameters of a search: the bound values, not the raw query string, so
+     * {@code serviceId=01} and {@code serviceId=1} share a computation.
+     */
+    public record Query(Integer serviceId, LocalDate date) {
+    }
+
+    public AvailableSlotsFlight(MeterRegistry meterRegistry) {
+        super("available_slots", meterRegistry);
+    }
+}
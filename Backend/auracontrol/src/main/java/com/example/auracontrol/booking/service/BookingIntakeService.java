@@ -0,0 +1,286 @@
+package com.example.auracontrol.booking.service;
+
+import com.example.auracontrol.booking.dto.BookingRequest;
+import com.example.auracontrol.booking.dto.BookingTicketDto;
+import com.example.auracontrol.booking.entity.Appointment;
+import com.example.auracontrol.exception.ConcurrencyConflictException;
+import com.example.auracontrol.exception.DuplicateResourceException;
+import com.example.auracontrol.exception.InvalidRequestException;
+import com.example.auracontrol.exception.ResourceNotFoundException;
+import com.example.auracontrol.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asynchronous booking intake for load spikes (app.booking-intake.enabled).
+ *
+ * <p>A request is answered right away with a ticket and queued on one of a fixed number of lanes.
+ * The lane is chosen from the partition key (technician, or service when none was picked, plus
+ * the date), so all bookings competing for the same technician rows on a day go through the same
+ * lane. Each lane has a single worker that drains up to batch-size tickets at a time and books them
+ * one after another: within a partition nothing waits on validate_appointment's row locks any more,
+ * and a booking that can no longer fit is turned down by the availability check instead of a
+ * rolled-back insert.</p>
+ *
+ * <p>Every booking still commits on its own through {@link AppointmentService#createAppointment},
+ * because a trigger rejection aborts the whole statement and would take the rest of a multi-row
+ * insert with it. Bookings from different partitions (or other nodes) may still meet on the same
+ * technician; the triggers and the conflict retry keep those correct.</p>
+ *
+ * <p>Tickets live in memory on the node that accepted them for app.booking-intake.ticket-ttl, and at
+ * most app.booking-intake.max-tickets of them are kept, so a burst cannot grow the heap without limit.</p>
+ */
+@Service
+@ConditionalOnProperty(name = "app.booking-intake.enabled", havingValue = "true")
+public class BookingIntakeService {
+    private static final Logger log = LoggerFactory.getLogger(BookingIntakeService.class);
+
+    public static final String QUEUED = "QUEUED";
+    public static final String PROCESSING = "PROCESSING";
+    public static final String CONFIRMED = "CONFIRMED";
+    public static final String REJECTED = "REJECTED";
+    public static final String FAILED = "FAILED";
+
+    private static final String STOPPED = "Booking intake stopped before this booking was processed, please retry.";
+
+    private final AppointmentService appointmentService;
+    private final int batchSize;
+    private final Duration streamTimeout;
+    private final List<BlockingQueue<Ticket>> lanes = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final Cache<String, Ticket> tickets;
+    private volatile boolean running = true;
+
+    private final Timer queueWait;
+    private final DistributionSummary batchSizes;
+    private final Map<String, Counter> processed = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public BookingIntakeService(
+            AppointmentService appointmentService,
+            MeterRegistry meterRegistry,
+            @Value("${app.booking-intake.lanes:0}") int lanes,
+            @Value("${app.booking-intake.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.booking-intake.batch-size:50}") int batchSize,
+            @Value("${app.booking-intake.ticket-ttl:10m}") Duration ticketTtl,
+            @Value("${app.booking-intake.max-tickets:100000}") long maxTickets,
+            @Value("${app.booking-intake.stream-timeout:2m}") Duration streamTimeout
+    ) {
+        this.appointmentService = appointmentService;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = Math.max(1, batchSize);
+        this.streamTimeout = streamTimeout;
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(ticketTtl)
+                .maximumSize(maxTickets)
+                .build();
+
+        int laneCount = lanes > 0 ? lanes : Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < laneCount; i++) {
+            BlockingQueue<Ticket> queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.lanes.add(queue);
+            workers.add(Thread.ofVirtual().name("booking-intake-" + i).start(() -> work(queue)));
+        }
+
+        Gauge.builder("booking.intake.queued", this.lanes, l -> l.stream().mapToInt(BlockingQueue::size).sum())
+                .description("Bookings waiting in the intake lanes on this node")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("booking.intake.wait")
+                .description("Time a booking spent queued before its lane picked it up")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("booking.intake.batch")
+                .description("Bookings drained by a lane worker at once")
+                .register(meterRegistry);
+    }
+
+    public BookingTicketDto submit(BookingRequest request, Integer userId, Integer customerId) {
+        if (customerId == null) {
+            throw new ResourceNotFoundException("Customer profile not found for current user");
+        }
+        if (request.getServiceId() == null || request.getStartTime() == null) {
+            throw new InvalidRequestException("serviceId and startTime are required.");
+        }
+        if (!running) {
+            throw new TooManyRequestsException("Booking intake is shutting down, please retry.", 5);
+        }
+
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), userId, customerId, request);
+        tickets.put(ticket.id, ticket);
+        if (!lanes.get(Math.floorMod(partitionKey(request).hashCode(), lanes.size())).offer(ticket)) {
+            tickets.invalidate(ticket.id);
+            throw new TooManyRequestsException("Booking queue is full, please retry shortly.", 1);
+        }
+        return ticket.toDto();
+    }
+
+    public BookingTicketDto get(String ticketId, Integer userId) {
+        return find(ticketId, userId).toDto();
+    }
+
+    /**
+     * Sends a "ticket" event with the current state and, unless that is already final, another
+     * one when the booking has been processed; then completes.
+     */
+    public SseEmitter stream(String ticketId, Integer userId) {
+        Ticket ticket = find(ticketId, userId);
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        send(emitter, ticket.toDto());
+        if (ticket.done.isDone()) {
+            emitter.complete();
+        } else {
+            ticket.done.thenAccept(result -> {
+                send(emitter, result);
+                emitter.complete();
+            });
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        List<Ticket> abandoned = new ArrayList<>();
+        lanes.forEach(queue -> queue.drainTo(abandoned));
+        abandoned.forEach(ticket -> ticket.finish(FAILED, null, STOPPED));
+    }
+
+    // Bookings that compete for the same technician rows share a partition
+    static String partitionKey(BookingRequest request) {
+        String owner = request.getTechnicianId() != null
+                ? "technician:" + request.getTechnicianId()
+                : "service:" + request.getServiceId();
+        return owner + "|" + request.getStartTime().toLocalDate();
+    }
+
+    private void work(BlockingQueue<Ticket> queue) {
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            batchSizes.record(batch.size());
+            for (Ticket ticket : batch) {
+                if (running) {
+                    process(ticket);
+                } else {
+                    ticket.finish(FAILED, null, STOPPED);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void process(Ticket ticket) {
+        ticket.status = PROCESSING;
+        queueWait.record(Duration.between(ticket.queuedAt, LocalDateTime.now()));
+        try {
+            Appointment appointment = appointmentService.createAppointment(ticket.request, ticket.customerId);
+            ticket.finish(CONFIRMED, appointment, "Booking successfully created!.");
+        } catch (ResourceNotFoundException | DuplicateResourceException | InvalidRequestException e) {
+            ticket.finish(REJECTED, null, e.getMessage());
+        } catch (ConcurrencyConflictException e) {
+            ticket.finish(FAILED, null, e.getMessage());
+        } catch (RuntimeException e) {
+            if (BookingRejectionReason.fromTriggerError(e).isPresent()) {
+                ticket.finish(REJECTED, null, "The selected time slot is no longer available.");
+            } else {
+                log.warn("Queued booking {} failed", ticket.id, e);
+                ticket.finish(FAILED, null, "Booking failed, please try again.");
+            }
+        }
+        processed.computeIfAbsent(ticket.status,
+                status -> Counter.builder("booking.intake.processed")
+                        .description("Queued bookings by final status")
+                        .tag("status", status)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private Ticket find(String ticketId, Integer userId) {
+        Ticket ticket = tickets.getIfPresent(ticketId);
+        // Someone else's ticket is reported as missing, not as forbidden
+        if (ticket == null || !ticket.userId.equals(userId)) {
+            throw new ResourceNotFoundException("Booking ticket not found: " + ticketId);
+        }
+        return ticket;
+    }
+
+    private static void send(SseEmitter emitter, BookingTicketDto dto) {
+        try {
+            emitter.send(SseEmitter.event().name("ticket").data(dto));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the container completes the emitter
+        }
+    }
+
+    private static final class Ticket {
+        private final String id;
+        private final Integer userId;
+        private final Integer customerId;
+        private final BookingRequest request;
+        private final LocalDateTime queuedAt = LocalDateTime.now();
+        private final CompletableFuture<BookingTicketDto> done = new CompletableFuture<>();
+
+        private volatile String status = QUEUED;
+        private volatile Integer appointmentId;
+        private volatile String message;
+        private volatile LocalDateTime completedAt;
+
+        private Ticket(String id, Integer userId, Integer customerId, BookingRequest request) {
+            this.id = id;
+            this.userId = userId;
+            this.customerId = customerId;
+            this.request = request;
+        }
+
+        void finish(String finalStatus, Appointment appointment, String finalMessage) {
+            appointmentId = appointment != null ? appointment.getAppointmentId() : null;
+            message = finalMessage;
+            completedAt = LocalDateTime.now();
+            status = finalStatus;
+            done.complete(toDto());
+        }
+
+        BookingTicketDto toDto() {
+            return BookingTicketDto.builder()
+                    .ticketId(id)
+                    .status(status)
+                    .appointmentId(appointmentId)
+                    .startTime(request.getStartTime())
+                    .message(message)
+                    .queuedAt(queuedAt)
+                    .completedAt(completedAt)
+                    .build();
+        }
+    }
+}
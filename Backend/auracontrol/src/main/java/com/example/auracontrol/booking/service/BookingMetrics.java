@@ -0,0 +1,132 @@
+package com.example.auracontrol.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the booking pipeline.
+ *
+ * <ul>
+ *   <li>{@code booking.operation} – whole call, tagged with operation and outcome</li>
+ *   <li>{@code booking.stage} – one timer per operation stage (lookup, resource search, insert ...)</li>
+ *   <li>{@code booking.rejected} – turned-down bookings by reason and by who rejected them (check or trigger)</li>
+ *   <li>{@code booking.slots.*} – input and output sizes of the available-slot engine</li>
+ * </ul>
+ * Timers publish histogram buckets so p95/p99 can be aggregated across nodes in Prometheus.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingMetrics {
+
+    public static final String CREATE = "create";
+    public static final String RESCHEDULE = "reschedule";
+    public static final String AVAILABLE_SLOTS = "available_slots";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> operationTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> slotSizes = new ConcurrentHashMap<>();
+
+    public Stopwatch start(String operation) {
+        return new Stopwatch(operation, System.nanoTime());
+    }
+
+    public void rejected(String operation, BookingRejectionReason reason, String source) {
+        rejections.computeIfAbsent(operation + "|" + reason.getTag() + "|" + source,
+                key -> Counter.builder("booking.rejected")
+                        .description("Bookings turned down by availability checks or appointment triggers")
+                        .tag("operation", operation)
+                        .tag("reason", reason.getTag())
+                        .tag("source", source)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Records a trigger failure if it is a known rejection; returns the reason, or null.
+     */
+    public BookingRejectionReason triggerRejected(String operation, Throwable error) {
+        BookingRejectionReason reason = BookingRejectionReason.fromTriggerError(error).orElse(null);
+        if (reason != null) {
+            rejected(operation, reason, "trigger");
+        }
+        return reason;
+    }
+
+    /**
+     * @param dimension technicians, appointments, absences, evaluated or available
+     */
+    public void slotEngineSize(String dimension, long size) {
+        slotSizes.computeIfAbsent(dimension,
+                key -> DistributionSummary.builder("booking.slots." + key)
+                        .description("Available-slot engine size per request")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(size);
+    }
+
+    private Timer operationTimer(String operation, String outcome, String exception) {
+        return operationTimers.computeIfAbsent(operation + "|" + outcome + "|" + exception,
+                key -> Timer.builder("booking.operation")
+                        .description("End-to-end time of a booking service call, excluding the commit")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .tag("exception", exception)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    private Timer stageTimer(String operation, String stage) {
+        return stageTimers.computeIfAbsent(operation + "|" + stage,
+                key -> Timer.builder("booking.stage")
+                        .description("Time spent in one stage of a booking operation")
+                        .tag("operation", operation)
+                        .tag("stage", stage)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    /**
+     * Splits one operation into consecutive stages: every {@link #lap} records the time since the
+     * previous lap. Not thread-safe; one instance per call.
+     */
+    public final class Stopwatch {
+        private final String operation;
+        private final long startedAt;
+        private long lapStartedAt;
+
+        private Stopwatch(String operation, long startedAt) {
+            this.operation = operation;
+            this.startedAt = startedAt;
+            this.lapStartedAt = startedAt;
+        }
+
+        public void lap(String stage) {
+            long now = System.nanoTime();
+            stageTimer(operation, stage).record(now - lapStartedAt, TimeUnit.NANOSECONDS);
+            lapStartedAt = now;
+        }
+
+        public void success() {
+            stop("success", "none");
+        }
+
+        public void failure(Throwable error) {
+            stop("failure", error.getClass().getSimpleName());
+        }
+
+        private void stop(String outcome, String exception) {
+            operationTimer(operation, outcome, exception).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+}
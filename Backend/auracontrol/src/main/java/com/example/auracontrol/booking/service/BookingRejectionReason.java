@@ -0,0 +1,58 @@
+package com.example.auracontrol.booking.service;
+
+import java.util.Optional;
+
+/**
+ * Why a booking or reschedule was turned down, either by the service's own checks
+ * or by the appointment triggers (recognised from the RAISE EXCEPTION text).
+ */
+public enum BookingRejectionReason {
+    TECHNICIAN_BUSY("technician_busy"),
+    TECHNICIAN_ON_LEAVE("technician_on_leave"),
+    TECHNICIAN_NOT_QUALIFIED("technician_not_qualified"),
+    NO_RESOURCES("no_resources"),
+    PAST_TIME("past_time");
+
+    private final String tag;
+
+    BookingRejectionReason(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Maps a trigger failure to its reason; empty when the root cause is not a known trigger message.
+     */
+    public static Optional<BookingRejectionReason> fromTriggerError(Throwable error) {
+        Throwable rootCause = error;
+        while (rootCause.getCause() != null && rootCause.getCause() != rootCause) {
+            rootCause = rootCause.getCause();
+        }
+        String message = rootCause.getMessage();
+        if (message == null) {
+            return Optional.empty();
+        }
+
+        if (message.contains("Technician is not available") || message.contains("The technician is busy")) {
+            return Optional.of(TECHNICIAN_BUSY);
+        }
+        if (message.contains("Technician is on approved leave")) {
+            return Optional.of(TECHNICIAN_ON_LEAVE);
+        }
+        if (message.contains("Not enough resources")
+                || message.contains("Not enough available resources")
+                || message.contains("No available resources")) {
+            return Optional.of(NO_RESOURCES);
+        }
+        if (message.contains("does not have required skill") || message.contains("does not have the skill")) {
+            return Optional.of(TECHNICIAN_NOT_QUALIFIED);
+        }
+        if (message.contains("Cannot book an appointment in the past")) {
+            return Optional.of(PAST_TIME);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.auracontrol.booking.service;
+
+import java.time.Duration;
+
+/**
+ * Reminder emails sent ahead of a CONFIRMED appointment.
+ * An appointment booked inside a shorter lead time only gets the shorter reminder.
+ */
+public enum ReminderKind {
+    H24(Duration.ofHours(24)),
+    H2(Duration.ofHours(2));
+
+    private final Duration lead;
+
+    ReminderKind(Duration lead) {
+        this.lead = lead;
+    }
+
+    public Duration getLead() {
+        return lead;
+    }
+
+    /**
+     * Lead time of the next, shorter reminder (zero for the last one).
+     */
+    public Duration getNextLead() {
+        ReminderKind[] kinds = values();
+        return ordinal() + 1 < kinds.length ? kinds[ordinal() + 1].lead : Duration.ZERO;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.auracontrol.booking.service;
+
+import com.example.auracontrol.shared.sqltrace.SqlTraceContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent reads of {@link AppointmentService#getAvailableSlots} side by side.
+ *
+ * <p>Every task holds a database connection while it runs, so the pool is sized from the connection
+ * budget (by default a quarter of the Hikari pool) and hands tasks over without queueing them. When
+ * every thread is busy the caller runs the query itself, which degrades to the old sequential
+ * behaviour right away instead of waiting behind other searches. Tasks count their statements into
+ * the SQL trace of the request that submitted them. Pool and hand-offs show up as executor.* meters,
+ * name=slot.queries.</p>
+ */
+@Component
+public class SlotQueryExecutor implements Executor {
+    private final ExecutorService executor;
+
+    public SlotQueryExecutor(MeterRegistry meterRegistry,
+                             @Value("${app.slot-queries.threads:0}") int threads,
+                             @Value("${app.slot-queries.queue-capacity:0}") int queueCapacity,
+                             @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        if (threads <= 0) {
+            threads = Math.max(1, connectionPoolSize / 4);
+        }
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue,
+                Thread.ofPlatform().name("slot-query-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "slot.queries");
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, this);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(SqlTraceContext.wrap(command));
+    }
+
+    /**
+     * Waits for a query and rethrows its own exception (e.g. ResourceNotFoundException) rather
+     * than the CompletionException wrapping it.
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.auracontrol.config;
+
+import com.example.auracontrol.shared.ratelimit.InMemoryTokenBucketRateLimiter;
+import com.example.auracontrol.shared.ratelimit.RateLimitProperties;
+import com.example.auracontrol.shared.ratelimit.RateLimiter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-node token buckets, unless another {@link RateLimiter} (e.g. a shared store) is registered.
+ * A bean method rather than a conditional @Component: its condition is evaluated after component
+ * scanning, so a scanned RateLimiter is always seen.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(RateLimiter.class)
+    public InMemoryTokenBucketRateLimiter inMemoryTokenBucketRateLimiter(RateLimitProperties properties) {
+        return new InMemoryTokenBucketRateLimiter(properties);
+    }
+}
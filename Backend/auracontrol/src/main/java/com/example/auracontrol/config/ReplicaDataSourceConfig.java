@@ -0,0 +1,79 @@
+package com.example.auracontrol.config;
+
+import com.example.auracontrol.shared.datasource.ReplicaDataSourceProperties;
+import com.example.auracontrol.shared.datasource.ReplicaLagMonitor;
+import com.example.auracontrol.shared.datasource.ReplicaRoutingDataSource;
+import com.example.auracontrol.shared.datasource.RoutingPools;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Primary + read replica pools behind a routing DataSource (app.datasource.replica.enabled=true).
+ * Replaces Boot's single pool; without the flag nothing here is created.
+ * Each pool reports its own hikaricp.* meters, tagged pool=primary / pool=replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public RoutingPools routingPools(DataSourceProperties primaryProperties,
+                                     ReplicaDataSourceProperties replicaProperties,
+                                     Environment environment,
+                                     MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+
+        HikariConfig primary = new HikariConfig();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setJdbcUrl(primaryProperties.determineUrl());
+        primary.setUsername(primaryProperties.determineUsername());
+        primary.setPassword(primaryProperties.determinePassword());
+        primary.setDriverClassName(primaryProperties.determineDriverClassName());
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        HikariConfig replica = new HikariConfig();
+        binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(replica));
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(replicaProperties.getUrl());
+        replica.setUsername(replicaProperties.getUsername());
+        replica.setPassword(replicaProperties.getPassword());
+        replica.setDriverClassName(primaryProperties.determineDriverClassName());
+        replica.setReadOnly(true);
+        // The replica may be down at startup; the lag monitor keeps reads on the primary until it is back
+        replica.setInitializationFailTimeout(-1);
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        return new RoutingPools(new HikariDataSource(primary), new HikariDataSource(replica));
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(RoutingPools pools,
+                                               ReplicaDataSourceProperties replicaProperties,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(pools.replica(), replicaProperties.getMaxLag(), meterRegistry);
+    }
+
+    @Bean
+    public DataSource dataSource(RoutingPools pools, ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy dataSource =
+                new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(pools, lagMonitor, meterRegistry));
+        // Avoid borrowing a connection just to detect the defaults
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.auracontrol.exception;
+
+public class ConcurrencyConflictException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ConcurrencyConflictException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.auracontrol.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Immutable, versioned view of the service catalog.
+ * A new snapshot is built on every catalog change and swapped in as a whole,
+ * so readers never see a half-updated catalog and never touch the database.
+ */
+public final class CatalogSnapshot {
+
+    public record Requirement(String resourceType, int quantity) {
+    }
+
+    public record Entry(
+            Integer serviceId,
+            String name,
+            String description,
+            BigDecimal price,
+            Integer durationMinutes,
+            boolean active,
+            List<Requirement> requirements,
+            List<Integer> technicianIds,
+            String searchText
+    ) {
+        boolean matches(String keyword) {
+            return searchText.contains(keyword);
+        }
+    }
+
+    private final long version;
+    private final Instant builtAt;
+    private final String etag;
+    private final Map<Integer, Entry> byId;
+    private final List<Entry> active;
+
+    private CatalogSnapshot(long version, List<Entry> entries) {
+        this.version = version;
+        this.builtAt = Instant.now();
+
+        Map<Integer, Entry> index = new HashMap<>();
+        List<Entry> activeEntries = new ArrayList<>();
+        for (Entry entry : entries) {
+            index.put(entry.serviceId(), entry);
+            if (entry.active()) {
+                activeEntries.add(entry);
+            }
+        }
+        this.byId = Map.copyOf(index);
+        this.active = List.copyOf(activeEntries);
+        this.etag = computeEtag(entries);
+    }
+
+    /**
+     * Entries are expected in display order (ascending service id).
+     */
+    public static CatalogSnapshot of(long version, List<Entry> entries) {
+        return new CatalogSnapshot(version, entries);
+    }
+
+    public static Entry entry(
+            Integer serviceId,
+            String name,
+            String description,
+            BigDecimal price,
+            Integer durationMinutes,
+            boolean active,
+            List<Requirement> requirements,
+            List<Integer> technicianIds
+    ) {
+        String searchText = ((name != null ? name : "") + "\n" + (description != null ? description : ""))
+                .toLowerCase(Locale.ROOT);
+        return new Entry(serviceId, name, description, price, durationMinutes, active,
+                List.copyOf(requirements), List.copyOf(technicianIds), searchText);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    /**
+     * Strong ETag derived from the catalog content, so every node serving the
+     * same catalog hands out the same validator.
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    public Optional<Entry> find(Integer serviceId) {
+        return Optional.ofNullable(byId.get(serviceId));
+    }
+
+    public Optional<Entry> findActive(Integer serviceId) {
+        return find(serviceId).filter(Entry::active);
+    }
+
+    public List<Entry> getActiveEntries() {
+        return active;
+    }
+
+    /**
+     * Same semantics as ServiceRepository.searchActiveServices: case-insensitive
+     * substring match on name or description, active services only.
+     */
+    public Page<Entry> search(String keyword, Pageable pageable) {
+        List<Entry> matches;
+        if (keyword == null || keyword.isBlank()) {
+            matches = active;
+        } else {
+            String needle = keyword.trim().toLowerCase(Locale.ROOT);
+            matches = new ArrayList<>();
+            for (Entry entry : active) {
+                if (entry.matches(needle)) {
+                    matches.add(entry);
+                }
+            }
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
+    }
+
+    private static String computeEtag(List<Entry> entries) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Entry entry : entries) {
+                String line = entry.serviceId() + "|" + entry.name() + "|" + entry.description() + "|"
+                        + (entry.price() != null ? entry.price().toPlainString() : "") + "|"
+                        + entry.durationMinutes() + "|" + entry.active() + "|"
+                        + entry.requirements() + "|" + entry.technicianIds() + "\n";
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
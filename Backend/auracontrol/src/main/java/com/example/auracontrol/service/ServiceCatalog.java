@@ -0,0 +1,125 @@
+package com.example.auracontrol.service;
+
+import com.example.auracontrol.service.dto.ServiceRequirementRow;
+import com.example.auracontrol.service.dto.ServiceTechnicianRow;
+import com.example.auracontrol.shared.cache.CacheTopics;
+import com.example.auracontrol.shared.cache.InvalidationBroadcaster;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link CatalogSnapshot}.
+ * Public catalog reads go through {@link #current()} and never hit the database;
+ * the snapshot is rebuilt after every committed catalog change and swapped atomically,
+ * on this node directly and on the others through the {@link CacheTopics#SERVICE} invalidation.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServiceCatalog {
+    private static final Logger log = LoggerFactory.getLogger(ServiceCatalog.class);
+
+    private final ServiceRepository serviceRepository;
+    private final InvalidationBroadcaster broadcaster;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong versions = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile CatalogSnapshot snapshot;
+
+    @PostConstruct
+    void subscribe() {
+        broadcaster.subscribe(CacheTopics.SERVICE, reason -> {
+            log.debug("Rebuilding service catalog after a change on another node: {}", reason);
+            transactionTemplate.executeWithoutResult(status -> rebuild());
+        });
+    }
+
+    public CatalogSnapshot current() {
+        CatalogSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        rebuildLock.lock();
+        try {
+            return snapshot != null ? snapshot : rebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Rebuilds are deliberately not read-only transactions: they must see the latest committed
+    // catalog, so they stay on the primary when a read replica is configured
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void warmUp() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCatalogChanged(ServiceCatalogChangedEvent event) {
+        log.debug("Rebuilding service catalog: {}", event.reason());
+        rebuild();
+        broadcaster.broadcast(CacheTopics.SERVICE, event.reason());
+    }
+
+    /**
+     * Loads services, requirements and qualified technicians with three flat queries
+     * and publishes the result as a new snapshot.
+     */
+    public CatalogSnapshot rebuild() {
+        rebuildLock.lock();
+        try {
+            Map<Integer, List<CatalogSnapshot.Requirement>> requirements = new HashMap<>();
+            for (ServiceRequirementRow row : serviceRepository.findAllRequirementRows()) {
+                requirements.computeIfAbsent(row.getServiceId(), id -> new ArrayList<>())
+                        .add(new CatalogSnapshot.Requirement(
+                                row.getResourceType(),
+                                row.getQuantity() != null ? row.getQuantity() : 1));
+            }
+
+            Map<Integer, List<Integer>> technicians = new HashMap<>();
+            for (ServiceTechnicianRow row : serviceRepository.findQualifiedTechnicianRows()) {
+                technicians.computeIfAbsent(row.getServiceId(), id -> new ArrayList<>())
+                        .add(row.getTechnicianId());
+            }
+
+            List<Service> services = new ArrayList<>(serviceRepository.findAll());
+            services.sort(Comparator.comparing(Service::getServiceId));
+
+            List<CatalogSnapshot.Entry> entries = new ArrayList<>(services.size());
+            for (Service service : services) {
+                entries.add(CatalogSnapshot.entry(
+                        service.getServiceId(),
+                        service.getName(),
+                        service.getDescription(),
+                        service.getPrice(),
+                        service.getDurationMinutes(),
+                        Boolean.TRUE.equals(service.getIsActive()),
+                        requirements.getOrDefault(service.getServiceId(), List.of()),
+                        technicians.getOrDefault(service.getServiceId(), List.of())
+                ));
+            }
+
+            CatalogSnapshot next = CatalogSnapshot.of(versions.incrementAndGet(), entries);
+            snapshot = next;
+            log.info("Service catalog v{} built: {} services, etag {}", next.getVersion(), entries.size(), next.getEtag());
+            return next;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+}
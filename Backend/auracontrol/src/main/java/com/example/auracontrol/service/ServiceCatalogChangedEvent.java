@@ -0,0 +1,8 @@
+package com.example.auracontrol.service;
+
+/**
+ * Published whenever services, their resource requirements or technician skills change.
+ * The catalog snapshot is rebuilt once the publishing transaction commits.
+ */
+public record ServiceCatalogChangedEvent(String reason) {
+}
@@ -3,8 +3,10 @@ package com.example.auracontrol.service;
 import com.example.auracontrol.service.dto.ServiceBookingResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -13,19 +15,33 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ServiceController {
     private final ServiceService serviceService;
+    private final ServiceCatalog serviceCatalog;
 
     @GetMapping("/active")
     public ResponseEntity<Page<ServiceBookingResponse>> getActiveServices(
             @RequestParam(required = false) String keyword,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest
     ) {
-        return ResponseEntity.ok(serviceService.getServicesForBooking(keyword, page, size));
+        CatalogSnapshot catalog = serviceCatalog.current();
+        if (webRequest.checkNotModified(catalog.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(catalog.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(catalog.getEtag())
+                .body(serviceService.getServicesForBooking(catalog, keyword, page, size));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ServiceBookingResponse> getServiceDetail(@PathVariable Integer id) {
-        return ResponseEntity.ok(serviceService.getServiceDetailForCustomer(id));
+    public ResponseEntity<ServiceBookingResponse> getServiceDetail(@PathVariable Integer id, WebRequest webRequest) {
+        CatalogSnapshot catalog = serviceCatalog.current();
+        if (webRequest.checkNotModified(catalog.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(catalog.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(catalog.getEtag())
+                .body(serviceService.getServiceDetailForCustomer(catalog, id));
 
     }
 }
@@ -1,4 +1,6 @@
 package com.example.auracontrol.service;
+import com.example.auracontrol.service.dto.ServiceRequirementRow;
+import com.example.auracontrol.service.dto.ServiceTechnicianRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -54,5 +56,16 @@ public interface ServiceRepository extends JpaRepository<Service, Integer> {
 
     List<com.example.auracontrol.service.Service> findByServiceIdInAndIsActiveTrue(List<Integer> ids);
 
+    // Flat rows used to build the in-memory catalog snapshot
+    @Query("SELECT r.service.serviceId AS serviceId, r.resourceType AS resourceType, r.quantity AS quantity " +
+            "FROM ServiceResourceRequirement r ORDER BY r.service.serviceId, r.requirementId")
+    List<ServiceRequirementRow> findAllRequirementRows();
+
+    @Query("SELECT ts.service.serviceId AS serviceId, ts.technician.technicianId AS technicianId " +
+            "FROM TechnicianServiceSkill ts " +
+            "WHERE ts.technician.user.enabled = true " +
+            "ORDER BY ts.service.serviceId, ts.technician.technicianId")
+    List<ServiceTechnicianRow> findQualifiedTechnicianRows();
+
 
 }
@@ -5,6 +5,7 @@ import com.example.auracontrol.exception.ResourceNotFoundException;
 import com.example.auracontrol.service.dto.ServiceBookingResponse;
 import com.example.auracontrol.service.dto.ServiceRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -20,6 +21,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ServiceService {
     private final ServiceRepository serviceRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     public List<com.example.auracontrol.service.Service> getAllServices() {
@@ -54,7 +56,9 @@ public class ServiceService {
                 newService.getResourceRequirements().add(resource);
             }
         }
-        return serviceRepository.save(newService);
+        com.example.auracontrol.service.Service saved = serviceRepository.save(newService);
+        eventPublisher.publishEvent(new ServiceCatalogChangedEvent("service created: " + saved.getServiceId()));
+        return saved;
 
     }
     @Transactional
@@ -90,7 +94,9 @@ public class ServiceService {
         }
 
 
-        return serviceRepository.save(service);
+        com.example.auracontrol.service.Service saved = serviceRepository.save(service);
+        eventPublisher.publishEvent(new ServiceCatalogChangedEvent("service updated: " + id));
+        return saved;
     }
     @Transactional
     public void deleteService(Integer serviceId) {
@@ -102,35 +108,33 @@ public class ServiceService {
 
 
         serviceRepository.save(service);
+        eventPublisher.publishEvent(new ServiceCatalogChangedEvent("service deactivated: " + serviceId));
     }
-    public Page<ServiceBookingResponse> getServicesForBooking(String keyword, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-
-        Page<com.example.auracontrol.service.Service> entities;
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            entities = serviceRepository.searchActiveServices(keyword.trim(), pageable);
-        } else {
-            entities = serviceRepository.findByIsActiveTrue(pageable);
-        }
 
-        return entities.map(this::mapToResponse);
+    /**
+     * Pages over the given catalog snapshot instead of the database.
+     * The caller passes the snapshot so the response body and its ETag come from the same version.
+     */
+    public Page<ServiceBookingResponse> getServicesForBooking(CatalogSnapshot catalog, String keyword, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        return catalog.search(keyword, pageable).map(this::mapToResponse);
     }
 
 
-    public ServiceBookingResponse getServiceDetailForCustomer(Integer id) {
-        com.example.auracontrol.service.Service service = serviceRepository.findByServiceIdAndIsActiveTrue(id)
+    public ServiceBookingResponse getServiceDetailForCustomer(CatalogSnapshot catalog, Integer id) {
+        CatalogSnapshot.Entry entry = catalog.findActive(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Dịch vụ không tồn tại"));
 
 
-        return mapToResponse(service);
+        return mapToResponse(entry);
     }
-    private ServiceBookingResponse mapToResponse(com.example.auracontrol.service.Service service) {
+    private ServiceBookingResponse mapToResponse(CatalogSnapshot.Entry entry) {
         return ServiceBookingResponse.builder()
-                .serviceId(service.getServiceId())
-                .name(service.getName())
-                .description(service.getDescription())
-                .price(service.getPrice())
-                .durationMinutes(service.getDurationMinutes())
+                .serviceId(entry.serviceId())
+                .name(entry.name())
+                .description(entry.description())
+                .price(entry.price())
+                .durationMinutes(entry.durationMinutes())
                 .build();
     }
 }
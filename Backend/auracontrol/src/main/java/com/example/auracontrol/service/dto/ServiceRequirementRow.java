@@ -0,0 +1,7 @@
+package com.example.auracontrol.service.dto;
+
+public interface ServiceRequirementRow {
+    Integer getServiceId();
+    String getResourceType();
+    Integer getQuantity();
+}
@@ -0,0 +1,6 @@
+package com.example.auracontrol.service.dto;
+
+public interface ServiceTechnicianRow {
+    Integer getServiceId();
+    Integer getTechnicianId();
+}
@@ -0,0 +1,21 @@
+package com.example.auracontrol.shared.cache;
+
+/**
+ * Invalidation topics shared by all nodes. Keys are the id of the changed row unless noted.
+ */
+public final class CacheTopics {
+
+    public static final String USER = "user";
+
+    // Key: appointment id
+    public static final String APPOINTMENT = "appointment";
+
+    // Key: free-form reason; every change rebuilds the whole catalog
+    public static final String SERVICE = "service";
+
+    // Key: absence request id (submitted or reviewed)
+    public static final String ABSENCE = "absence";
+
+    private CacheTopics() {
+    }
+}
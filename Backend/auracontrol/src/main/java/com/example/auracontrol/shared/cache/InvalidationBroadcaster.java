@@ -0,0 +1,25 @@
+package com.example.auracontrol.shared.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Propagates cache invalidations to the other application nodes.
+ * Local caches evict their own entries directly; the broadcaster only has to
+ * reach the other nodes, and never calls back the node that published.
+ */
+public interface InvalidationBroadcaster {
+
+    /**
+     * Key delivered when a node may have missed invalidations on a topic:
+     * listeners must drop everything they hold for it.
+     */
+    String ALL_KEYS = "*";
+
+    /**
+     * Sends an invalidation for {@code key} on {@code topic}. When called inside a
+     * transaction, implementations should deliver it only after commit.
+     */
+    void broadcast(String topic, String key);
+
+    void subscribe(String topic, Consumer<String> listener);
+}
@@ -0,0 +1,61 @@
+package com.example.auracontrol.shared.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Application-level change events for node-local caches.
+ *
+ * <p>{@link #publish} delivers the change to this node's subscribers and, through the
+ * {@link InvalidationBroadcaster}, to every other node, in both cases only once the surrounding
+ * transaction commits. Subscribers therefore see local and remote changes the same way, plus
+ * {@link InvalidationBroadcaster#ALL_KEYS} when missed notifications were detected.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class InvalidationBus {
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private final InvalidationBroadcaster broadcaster;
+    private final Map<String, List<Consumer<String>>> localListeners = new ConcurrentHashMap<>();
+
+    public void publish(String topic, Object key) {
+        String value = String.valueOf(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatchLocally(topic, value);
+                }
+            });
+        } else {
+            dispatchLocally(topic, value);
+        }
+        broadcaster.broadcast(topic, value);
+    }
+
+    public void subscribe(String topic, Consumer<String> listener) {
+        localListeners.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(listener);
+        broadcaster.subscribe(topic, listener);
+    }
+
+    private void dispatchLocally(String topic, String key) {
+        for (Consumer<String> listener : localListeners.getOrDefault(topic, List.of())) {
+            try {
+                listener.accept(key);
+            } catch (RuntimeException e) {
+                log.warn("Local invalidation listener for topic '{}' failed", topic, e);
+            }
+        }
+    }
+}
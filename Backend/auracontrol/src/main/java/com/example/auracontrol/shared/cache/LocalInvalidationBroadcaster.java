@@ -0,0 +1,22 @@
+package com.example.auracontrol.shared.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Single-node deployments: there is nobody else to notify.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.broadcaster", havingValue = "local")
+public class LocalInvalidationBroadcaster implements InvalidationBroadcaster {
+
+    @Override
+    public void broadcast(String topic, String key) {
+    }
+
+    @Override
+    public void subscribe(String topic, Consumer<String> listener) {
+    }
+}
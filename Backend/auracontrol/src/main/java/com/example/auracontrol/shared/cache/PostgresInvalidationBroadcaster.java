@@ -0,0 +1,411 @@
+package com.example.auracontrol.shared.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Default {@link InvalidationBroadcaster} built on Postgres LISTEN/NOTIFY.
+ *
+ * <p>Inside a transaction, publishing waits for the commit and is dropped on rollback. The key is
+ * then only queued in memory: a single sender thread per node drains the queue and, per topic,
+ * bumps the topic's row in cache_version once and sends {@code pg_notify} for every queued key
+ * with the new version, all in one short transaction. The committing thread never borrows a
+ * second connection, and each node holds a cache_version row only for that short flush instead of
+ * once per business write. When the database is unreachable the keys stay queued and are retried;
+ * more than {@code app.cache.max-pending-keys} on one topic collapse into {@link #ALL_KEYS}.
+ * Keys still queued when a node dies are lost, and the other nodes fall back on their cache TTLs.
+ * Listening uses one dedicated connection outside the pool, polled by a daemon thread.</p>
+ *
+ * <p>Postgres only queues notifications for connected listeners. Each node remembers the last
+ * version it saw per topic; a gap in the received versions, a reconnect, or a cache_version row
+ * that stays ahead for a whole check interval makes it deliver {@link #ALL_KEYS} for the topic.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.broadcaster", havingValue = "postgres", matchIfMissing = true)
+public class PostgresInvalidationBroadcaster implements InvalidationBroadcaster, SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(PostgresInvalidationBroadcaster.class);
+
+    private static final char SEPARATOR = '|';
+    private static final long MAX_RETRY_BACKOFF_MS = 30_000;
+
+    private static final String PUBLISH_SQL = """
+            WITH bumped AS (
+                INSERT INTO cache_version (topic, version) VALUES (?, 1)
+                ON CONFLICT (topic) DO UPDATE
+                    SET version = cache_version.version + 1, updated_at = CURRENT_TIMESTAMP
+                RETURNING version
+            )
+            SELECT pg_notify(?, ? || '|' || ? || '|' || version || '|' || key)::text
+            FROM bumped, unnest(?::text[]) AS key
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate publishTransaction;
+    private final DataSourceProperties dataSourceProperties;
+    private final String channel;
+    private final int maxPendingKeys;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+    // Keys committed but not sent yet, per topic
+    private final Map<String, Set<String>> pending = new ConcurrentHashMap<>();
+
+    // Highest version received (or resynced to) per topic, and versions seen ahead of it at the last check
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+    private final Map<String, Long> aheadAtLastCheck = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private volatile Connection listenConnection;
+    private Thread listenerThread;
+    private volatile Thread senderThread;
+
+    public PostgresInvalidationBroadcaster(JdbcTemplate jdbcTemplate,
+                                           TransactionTemplate transactionTemplate,
+                                           DataSourceProperties dataSourceProperties,
+                                           @Value("${app.cache.channel:aura_cache_invalidation}") String channel,
+                                           @Value("${app.cache.max-pending-keys:1000}") int maxPendingKeys) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.publishTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.dataSourceProperties = dataSourceProperties;
+        this.channel = channel;
+        this.maxPendingKeys = Math.max(1, maxPendingKeys);
+    }
+
+    @Override
+    public void broadcast(String topic, String key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(topic, key);
+                }
+            });
+        } else {
+            enqueue(topic, key);
+        }
+    }
+
+    @Override
+    public void subscribe(String topic, Consumer<String> listener) {
+        listeners.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    private void enqueue(String topic, String key) {
+        queue(topic, key);
+        Thread sender = senderThread;
+        if (sender != null) {
+            LockSupport.unpark(sender);
+        }
+    }
+
+    private void queue(String topic, String key) {
+        pending.compute(topic, (t, keys) -> {
+            if (keys == null) {
+                keys = new LinkedHashSet<>();
+            }
+            if (keys.contains(ALL_KEYS)) {
+                return keys;
+            }
+            keys.add(key);
+            if (ALL_KEYS.equals(key) || keys.size() > maxPendingKeys) {
+                // Everything on the topic is invalidated anyway
+                keys.clear();
+                keys.add(ALL_KEYS);
+            }
+            return keys;
+        });
+    }
+
+    private void sendLoop() {
+        long backoffMs = 0;
+        while (running) {
+            if (backoffMs > 0 || pending.isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs > 0 ? backoffMs : 1_000));
+            }
+            if (pending.isEmpty()) {
+                continue;
+            }
+            if (flush()) {
+                backoffMs = 0;
+            } else {
+                backoffMs = Math.min(Math.max(backoffMs * 2, 1_000), MAX_RETRY_BACKOFF_MS);
+            }
+        }
+    }
+
+    /**
+     * Sends everything queued so far in one transaction.
+     *
+     * @return false if it failed; the keys are queued again
+     */
+    private boolean flush() {
+        Map<String, Set<String>> batch = new HashMap<>();
+        for (String topic : List.copyOf(pending.keySet())) {
+            Set<String> keys = pending.remove(topic);
+            if (keys != null) {
+                batch.put(topic, keys);
+            }
+        }
+        if (batch.isEmpty()) {
+            return true;
+        }
+        try {
+            publishTransaction.executeWithoutResult(status -> batch.forEach((topic, keys) ->
+                    jdbcTemplate.execute((Connection connection) -> {
+                        try (PreparedStatement statement = connection.prepareStatement(PUBLISH_SQL)) {
+                            statement.setString(1, topic);
+                            statement.setString(2, channel);
+                            statement.setString(3, nodeId);
+                            statement.setString(4, topic);
+                            statement.setArray(5, connection.createArrayOf("text", keys.toArray()));
+                            statement.executeQuery().close();
+                        }
+                        return null;
+                    })));
+            return true;
+        } catch (DataAccessException e) {
+            // The changes themselves are committed; keep the keys and try again
+            log.warn("Could not publish invalidations for {}, retrying: {}", batch.keySet(), e.getMessage());
+            batch.forEach((topic, keys) -> keys.forEach(key -> queue(topic, key)));
+            return false;
+        }
+    }
+
+    /**
+     * Safety net for notifications lost without a disconnect being noticed: a topic whose
+     * version was already ahead at the previous check is resynced. Requiring two checks keeps
+     * notifications that are merely in flight from causing a full eviction.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.version-check-interval-ms:30000}",
+            initialDelayString = "${app.cache.version-check-interval-ms:30000}")
+    public void checkVersions() {
+        if (!running || listenConnection == null) {
+            return;
+        }
+        Map<String, Long> current;
+        try {
+            current = loadVersions();
+        } catch (DataAccessException e) {
+            log.debug("Cache version check failed: {}", e.getMessage());
+            return;
+        }
+        current.forEach((topic, version) -> {
+            long seen = lastSeen.getOrDefault(topic, 0L);
+            if (version <= seen) {
+                aheadAtLastCheck.remove(topic);
+                return;
+            }
+            Long ahead = aheadAtLastCheck.put(topic, version);
+            if (ahead != null && ahead > seen) {
+                log.info("Missed invalidations on '{}' (seen v{}, at v{}), resyncing", topic, seen, version);
+                aheadAtLastCheck.remove(topic);
+                resync(topic, version);
+            }
+        });
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        senderThread = new Thread(this::sendLoop, "cache-invalidation-sender");
+        senderThread.setDaemon(true);
+        senderThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeQuietly(listenConnection);
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        Thread sender = senderThread;
+        if (sender != null) {
+            senderThread = null;
+            sender.interrupt();
+            try {
+                sender.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Last chance for what was committed since the sender's final round; the pool is still open
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        long backoffMs = 1_000;
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                // Read the versions only after LISTEN, so nothing published in between is lost
+                catchUp(loadVersions(connection), reconnect);
+                listenConnection = connection;
+                log.info("Listening for cache invalidations on channel '{}'", channel);
+                backoffMs = 1_000;
+                reconnect = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(5_000);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                listenConnection = null;
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener disconnected, retrying in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, 30_000);
+            }
+        }
+    }
+
+    /**
+     * On the first connection the current versions are the baseline. After a reconnect anything
+     * may have been missed, so every topic that moved is resynced.
+     */
+    private void catchUp(Map<String, Long> versions, boolean reconnect) {
+        versions.forEach((topic, version) -> {
+            if (reconnect && version > lastSeen.getOrDefault(topic, 0L)) {
+                log.info("Resyncing '{}' after reconnect (now at v{})", topic, version);
+                resync(topic, version);
+            } else {
+                lastSeen.merge(topic, version, Math::max);
+            }
+        });
+    }
+
+    private void dispatch(String payload) {
+        // nodeId|topic|version|key
+        int first = payload.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : payload.indexOf(SEPARATOR, first + 1);
+        int third = second < 0 ? -1 : payload.indexOf(SEPARATOR, second + 1);
+        if (third < 0) {
+            log.debug("Ignoring malformed invalidation payload: {}", payload);
+            return;
+        }
+        String topic = payload.substring(first + 1, second);
+        long version;
+        try {
+            version = Long.parseLong(payload.substring(second + 1, third));
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed invalidation payload: {}", payload);
+            return;
+        }
+
+        // Own notifications still advance the version, they only skip the listeners
+        Long previous = lastSeen.get(topic);
+        lastSeen.merge(topic, version, Math::max);
+        if (previous != null && version > previous + 1) {
+            log.info("Gap in invalidations on '{}' (v{} after v{}), resyncing", topic, version, previous);
+            deliver(topic, ALL_KEYS);
+            return;
+        }
+        if (payload.substring(0, first).equals(nodeId)) {
+            return;
+        }
+        deliver(topic, payload.substring(third + 1));
+    }
+
+    private void resync(String topic, long version) {
+        lastSeen.merge(topic, version, Math::max);
+        deliver(topic, ALL_KEYS);
+    }
+
+    private void deliver(String topic, String key) {
+        for (Consumer<String> listener : listeners.getOrDefault(topic, List.of())) {
+            try {
+                listener.accept(key);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation listener for topic '{}' failed", topic, e);
+            }
+        }
+    }
+
+    private Map<String, Long> loadVersions() {
+        Map<String, Long> versions = new HashMap<>();
+        jdbcTemplate.query("SELECT topic, version FROM cache_version",
+                (ResultSet rs) -> {
+                    versions.put(rs.getString("topic"), rs.getLong("version"));
+                });
+        return versions;
+    }
+
+    private static Map<String, Long> loadVersions(Connection connection) throws SQLException {
+        Map<String, Long> versions = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT topic, version FROM cache_version")) {
+            while (rs.next()) {
+                versions.put(rs.getString("topic"), rs.getLong("version"));
+            }
+        }
+        return versions;
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
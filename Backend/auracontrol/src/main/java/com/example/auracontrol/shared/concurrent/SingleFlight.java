@@ -0,0 +1,86 @@
+package com.example.auracontrol.shared.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent callers with the same key share one computation.
+ *
+ * <p>The first caller for a key runs the computation on its own thread; callers that arrive while
+ * it is running wait for it and get the same result, or the same exception. The entry is dropped
+ * as soon as the computation finishes, so nothing is cached: the next caller computes afresh. A
+ * caller that joins late may get a result whose reads started shortly before it arrived, which is
+ * no staler than the response it would have got a moment earlier.</p>
+ *
+ * Meters: {@code singleflight.calls} (name, outcome = executed / coalesced) and
+ * {@code singleflight.in_flight} (name).
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = calls(name, "executed", meterRegistry);
+        this.coalesced = calls(name, "coalesced", meterRegistry);
+        Gauge.builder("singleflight.in_flight", inFlight, Map::size)
+                .description("Keys with a computation currently running")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the result of {@code computation} for {@code key}, running it only if no computation
+     * for an equal key is already in flight. The key must have value semantics (e.g. a record).
+     */
+    public V execute(K key, Supplier<V> computation) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        executed.increment();
+        try {
+            V result = computation.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    // Rethrows the leader's own exception rather than the CompletionException wrapping it
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter calls(String name, String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("singleflight.calls")
+                .description("Calls that ran a computation or shared one already in flight")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.auracontrol.shared.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Puts each physical connection pool behind its own {@link ConnectionLimitingDataSource}
+ * (app.datasource.limiter.enabled): Boot's pool, or with replica routing the primary and replica
+ * pools of {@link RoutingPools}, never the lazy routing proxy in front of them. Permits default to
+ * the wrapped pool's maximum-pool-size, so threads queue in the limiter rather than inside the pool.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.limiter.enabled", havingValue = "true")
+public class ConnectionLimiterPostProcessor implements BeanPostProcessor {
+    private static final String DATA_SOURCE = "dataSource";
+
+    private final Environment environment;
+    // Resolved lazily so the registry is still post-processed normally
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ConnectionLimiterPostProcessor(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof RoutingPools pools) {
+            return pools.withTargets(limit(pools.primary(), pools.primary().getPoolName()),
+                    limit(pools.replica(), pools.replica().getPoolName()));
+        }
+        // With routing, "dataSource" is the lazy proxy over RoutingPools, already limited above
+        if (!DATA_SOURCE.equals(beanName) || !(bean instanceof DataSource dataSource)
+                || bean instanceof ConnectionLimitingDataSource
+                || environment.getProperty("app.datasource.replica.enabled", Boolean.class, false)) {
+            return bean;
+        }
+        HikariDataSource pool = hikari(dataSource);
+        String name = pool != null && pool.getPoolName() != null ? pool.getPoolName() : beanName;
+        return limit(dataSource, name);
+    }
+
+    private ConnectionLimitingDataSource limit(DataSource dataSource, String name) {
+        int permits = environment.getProperty("app.datasource.limiter.max-connections", Integer.class, 0);
+        if (permits <= 0) {
+            HikariDataSource pool = hikari(dataSource);
+            permits = pool != null
+                    ? pool.getMaximumPoolSize()
+                    : environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        }
+        Duration maxWait = environment.getProperty("app.datasource.limiter.max-wait", Duration.class, Duration.ofSeconds(10));
+        return new ConnectionLimitingDataSource(dataSource, name, permits, maxWait, meterRegistry.getObject());
+    }
+
+    // The pool may already sit behind the SQL tracing proxy
+    private static HikariDataSource hikari(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource pool) {
+            return pool;
+        }
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.auracontrol.shared.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the connections checked out at once with a fair semaphore in front of one pool.
+ *
+ * <p>With virtual threads every request gets its own thread, so a burst can put thousands of
+ * borrowers on the pool at once. Here they park in one FIFO queue, cost next to nothing while
+ * waiting, and are admitted in arrival order as connections are returned; a borrower that waits
+ * longer than max-wait fails fast with a transient exception instead of piling up behind the pool's
+ * own timeout. The permit is released when the connection is closed (returned to the pool).</p>
+ *
+ * <p>It must wrap a physical pool, not a lazy or routing proxy: a lazy handle that never runs a
+ * statement would hold a permit without a connection.</p>
+ *
+ * Meters: {@code db.limiter.active}, {@code db.limiter.waiting} and {@code db.limiter.wait}, tagged with the pool.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+    private final Semaphore permits;
+    private final int maxConnections;
+    private final long maxWaitNanos;
+    private final Timer wait;
+
+    public ConnectionLimitingDataSource(DataSource target, String pool, int maxConnections, Duration maxWait,
+                                        MeterRegistry meterRegistry) {
+        super(target);
+        this.maxConnections = maxConnections;
+        this.permits = new Semaphore(maxConnections, true);
+        this.maxWaitNanos = maxWait.toNanos();
+
+        Gauge.builder("db.limiter.active", permits, p -> maxConnections - p.availablePermits())
+                .description("Connections currently held through the DB concurrency limiter")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        Gauge.builder("db.limiter.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a connection permit")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        this.wait = Timer.builder("db.limiter.wait")
+                .description("Time spent waiting for a connection permit")
+                .tag("pool", pool)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return guarded(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return guarded(() -> super.getConnection(username, password));
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection permit", e);
+        } finally {
+            wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            throw new SQLTransientConnectionException("No database connection permit within "
+                    + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + "ms (" + maxConnections + " in use)");
+        }
+    }
+
+    private Connection guarded(ConnectionSource source) throws SQLException {
+        Connection connection;
+        try {
+            connection = source.get();
+        } catch (SQLException | RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        // Only close() is intercepted; unwrap() and everything else reach the pooled connection
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.auracontrol.shared.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Read replica connection and routing settings, bound from {@code app.datasource.replica}.
+ * Pool settings go under {@code app.datasource.replica.hikari} (same keys as spring.datasource.hikari).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    private boolean enabled = false;
+
+    private String url;
+    private String username;
+    private String password;
+
+    // Above this replay lag, read-only work goes back to the primary
+    private Duration maxLag = Duration.ofSeconds(5);
+}
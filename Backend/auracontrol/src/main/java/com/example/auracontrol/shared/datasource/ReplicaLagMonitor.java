@@ -0,0 +1,102 @@
+package com.example.auracontrol.shared.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Polls the replica's replay lag. The replica is only used while the last check succeeded, the
+ * standby was streaming from its primary and the lag was within
+ * {@code app.datasource.replica.max-lag}; until the first check it is not used.
+ */
+public class ReplicaLagMonitor {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // A standby that has replayed everything it received is current even if the primary is idle,
+    // but only while it is still receiving: one that lost its upstream also has nothing left to
+    // replay, and gets staler every second (NULL). A server that is not in recovery (plain second
+    // instance in development) has no lag at all.
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private final Supplier<Double> lagProbe;
+    private final double maxLagSeconds;
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this(probe(replica), maxLag, meterRegistry);
+    }
+
+    /**
+     * @param lagProbe replay lag in seconds, null when the standby is not streaming from its primary
+     */
+    public ReplicaLagMonitor(Supplier<Double> lagProbe, Duration maxLag, MeterRegistry meterRegistry) {
+        this.lagProbe = lagProbe;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+
+        Gauge.builder("db.replica.lag", this, m -> m.lagSeconds)
+                .description("Replay lag of the read replica at the last check (NaN if unreachable or not streaming)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("db.replica.usable", this, m -> m.usable ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    private static Supplier<Double> probe(DataSource replica) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(replica);
+        jdbcTemplate.setQueryTimeout(2);
+        return () -> jdbcTemplate.queryForObject(LAG_SQL, Double.class);
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Double lag = lagProbe.get();
+            if (lag == null) {
+                lagSeconds = Double.NaN;
+                usable = false;
+                if (wasUsable) {
+                    log.warn("Read replica is not streaming from its primary, routing reads to the primary");
+                }
+                return;
+            }
+            lagSeconds = lag;
+            usable = lagSeconds <= maxLagSeconds;
+        } catch (DataAccessException e) {
+            lagSeconds = Double.NaN;
+            usable = false;
+            if (wasUsable) {
+                log.warn("Read replica unreachable, routing reads to the primary: {}", e.getMessage());
+            }
+            return;
+        }
+
+        if (wasUsable && !usable) {
+            log.warn("Read replica lag {}s over {}s, routing reads to the primary", lagSeconds, maxLagSeconds);
+        } else if (!wasUsable && usable) {
+            log.info("Read replica available (lag {}s), routing read-only transactions to it", lagSeconds);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.auracontrol.shared.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+/**
+ * Sends read-only transactions opened by application services to the replica.
+ *
+ * <p>Only transactions declared with {@code @Transactional(readOnly = true)} in our own code
+ * are routed. Spring Data also runs standalone repository calls in implicit read-only
+ * transactions (login, booking checks, caches), and those must read their own writes, so
+ * they stay on the primary, as does everything while the replica is lagging or down.</p>
+ *
+ * <p>Must sit behind a LazyConnectionDataSourceProxy: the transaction's read-only flag is
+ * only visible once the transaction has started, i.e. when the first statement runs.</p>
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {PRIMARY, REPLICA}
+
+    private static final String SPRING_DATA_PREFIX = "org.springframework.data.";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(RoutingPools pools, ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.fallbacks = Counter.builder("db.replica.fallback")
+                .description("Read-only transactions sent to the primary because the replica was lagging or down")
+                .register(meterRegistry);
+
+        setTargetDataSources(Map.of(Target.PRIMARY, pools.primaryTarget(), Target.REPLICA, pools.replicaTarget()));
+        setDefaultTargetDataSource(pools.primaryTarget());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Target.PRIMARY;
+        }
+        String transactionName = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (transactionName == null || transactionName.startsWith(SPRING_DATA_PREFIX)) {
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isUsable()) {
+            fallbacks.increment();
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.auracontrol.shared.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * The two connection pools behind {@link ReplicaRoutingDataSource}. Kept out of the context as
+ * DataSource beans so nothing but the router picks them up; closed with the context.
+ *
+ * <p>The router borrows through {@code primaryTarget} and {@code replicaTarget}, which are the pools
+ * themselves unless something wraps them, such as the per-pool {@link ConnectionLimitingDataSource}.</p>
+ */
+public record RoutingPools(HikariDataSource primary, HikariDataSource replica,
+                           DataSource primaryTarget, DataSource replicaTarget) implements AutoCloseable {
+
+    public RoutingPools(HikariDataSource primary, HikariDataSource replica) {
+        this(primary, replica, primary, replica);
+    }
+
+    public RoutingPools withTargets(DataSource primaryTarget, DataSource replicaTarget) {
+        return new RoutingPools(primary, replica, primaryTarget, replicaTarget);
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+}
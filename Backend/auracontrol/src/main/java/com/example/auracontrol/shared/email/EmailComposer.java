@@ -0,0 +1,30 @@
+package com.example.auracontrol.shared.email;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Turns an outbox row (template name + variables) into subject and HTML body.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailComposer {
+    public static final String RESET_PASSWORD = "reset-password";
+    public static final String VERIFY_ACCOUNT = "verify-account";
+    public static final String APPOINTMENT_REMINDER = "appointment-reminder";
+
+    private final EmailTemplateRegistry templateRegistry;
+
+    /**
+     * @param encodedSubject RFC 2047 encoded, ready for the raw Subject header
+     */
+    public record RenderedEmail(String encodedSubject, String html) {
+    }
+
+    public RenderedEmail compose(String template, Map<String, String> variables) {
+        EmailTemplate compiled = templateRegistry.get(template);
+        return new RenderedEmail(compiled.encodedSubject(variables), compiled.renderBody(variables));
+    }
+}
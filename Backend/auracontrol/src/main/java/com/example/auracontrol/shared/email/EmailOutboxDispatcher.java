@@ -0,0 +1,229 @@
+package com.example.auracontrol.shared.email;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drains the email outbox.
+ *
+ * <p>Each tick leases due rows for {@code lease} in one short transaction and commits, then renders
+ * them and hands the whole batch to {@link JavaMailSender#send(MimeMessage...)}, which delivers it
+ * over a single SMTP connection. No connection or row lock is held while SMTP is slow; the outcome
+ * of each row is written afterwards in its own short transaction. A node that dies mid-batch leaves
+ * its rows leased, and they are claimed again once the lease has run out.</p>
+ *
+ * <p>Failed rows are retried with exponential backoff and jitter; after {@code max-attempts} they
+ * are parked as DEAD for manual inspection.</p>
+ */
+@Component
+public class EmailOutboxDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    private static final TypeReference<Map<String, String>> VARIABLES = new TypeReference<>() {
+    };
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailComposer composer;
+    private final JavaMailSender mailSender;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final String fromEmail;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter dead;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+
+    public EmailOutboxDispatcher(
+            EmailOutboxRepository outboxRepository,
+            EmailComposer composer,
+            JavaMailSender mailSender,
+            ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${spring.mail.username}") String fromEmail,
+            @Value("${app.mail.outbox.batch-size:50}") int batchSize,
+            @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${app.mail.outbox.initial-backoff:30s}") Duration initialBackoff,
+            @Value("${app.mail.outbox.max-backoff:1h}") Duration maxBackoff,
+            @Value("${app.mail.outbox.lease:10m}") Duration lease
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.composer = composer;
+        this.mailSender = mailSender;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.fromEmail = fromEmail;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+
+        this.sent = Counter.builder("mail.outbox.sent").register(meterRegistry);
+        this.failed = Counter.builder("mail.outbox.failed")
+                .description("Delivery attempts that will be retried")
+                .register(meterRegistry);
+        this.dead = Counter.builder("mail.outbox.dead")
+                .description("Messages given up on")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("mail.outbox.batch").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("mail.outbox.batch.size").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:5000}")
+    public void drain() {
+        List<EmailOutboxMessage> batch;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            batch = transactionTemplate.execute(status -> outboxRepository.claimDue(now, now.plus(lease), batchSize));
+            if (batch == null || batch.isEmpty()) {
+                return;
+            }
+            // Detached once the claim has committed: SMTP runs without a connection or row locks
+            List<EmailOutboxMessage> claimed = batch;
+            batchTimer.record(() -> deliver(claimed));
+            claimed.forEach(this::recordOutcome);
+        } while (batch.size() == batchSize);
+    }
+
+    private void recordOutcome(EmailOutboxMessage row) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.recordOutcome(row.getOutboxId(),
+                    row.getStatus(), row.getAttempts(), row.getNextAttemptAt(), row.getLastError(), row.getSentAt()));
+        } catch (RuntimeException e) {
+            // The row stays leased and is sent again once the lease runs out
+            log.error("Could not record the outcome of email {} ({})", row.getOutboxId(), row.getStatus(), e);
+        }
+    }
+
+    /**
+     * Sends the given rows and records the outcome on each of them.
+     */
+    public void deliver(List<EmailOutboxMessage> batch) {
+        batchSizes.record(batch.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<MimeMessage, EmailOutboxMessage> byMessage = new LinkedHashMap<>();
+        for (EmailOutboxMessage row : batch) {
+            try {
+                byMessage.put(toMimeMessage(row), row);
+            } catch (Exception e) {
+                // Rendering problems won't fix themselves on retry
+                markDead(row, "Cannot build message: " + e.getMessage());
+            }
+        }
+        if (byMessage.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        try {
+            mailSender.send(byMessage.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                failures = allFailed(byMessage.keySet(), e);
+            }
+        } catch (MailException e) {
+            // e.g. authentication failure: nothing in the batch went out
+            failures = allFailed(byMessage.keySet(), e);
+        }
+
+        for (Map.Entry<MimeMessage, EmailOutboxMessage> entry : byMessage.entrySet()) {
+            EmailOutboxMessage row = entry.getValue();
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                row.setStatus(EmailOutboxMessage.STATUS_SENT);
+                row.setSentAt(now);
+                row.setAttempts(row.getAttempts() + 1);
+                row.setLastError(null);
+                sent.increment();
+            } else {
+                retryLater(row, failure, now);
+            }
+        }
+    }
+
+    private MimeMessage toMimeMessage(EmailOutboxMessage row) throws MessagingException, IOException {
+        Map<String, String> variables = objectMapper.readValue(row.getPayload(), VARIABLES);
+        EmailComposer.RenderedEmail email = composer.compose(row.getTemplate(), variables);
+
+        // Single text/html part; the subject arrives already encoded from the compiled template
+        MimeMessage message = mailSender.createMimeMessage();
+        message.setFrom(new InternetAddress(fromEmail));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(row.getRecipient(), true));
+        message.setHeader("Subject", email.encodedSubject());
+        message.setText(email.html(), "UTF-8", "html");
+        return message;
+    }
+
+    private void retryLater(EmailOutboxMessage row, Exception failure, LocalDateTime now) {
+        int attempts = row.getAttempts() + 1;
+        row.setAttempts(attempts);
+        if (attempts >= maxAttempts) {
+            markDead(row, failure.getMessage());
+            return;
+        }
+        row.setStatus(EmailOutboxMessage.STATUS_PENDING);
+        row.setLastError(failure.getMessage());
+        row.setNextAttemptAt(now.plus(backoff(attempts)));
+        failed.increment();
+        log.warn("Email {} to {} failed (attempt {}/{}): {}",
+                row.getOutboxId(), row.getRecipient(), attempts, maxAttempts, failure.getMessage());
+    }
+
+    private void markDead(EmailOutboxMessage row, String error) {
+        row.setStatus(EmailOutboxMessage.STATUS_DEAD);
+        row.setLastError(error);
+        dead.increment();
+        log.error("Email {} to {} moved to dead letter: {}", row.getOutboxId(), row.getRecipient(), error);
+    }
+
+    /**
+     * initialBackoff * 2^(attempts-1), capped, with up to 20% jitter so failed batches spread out.
+     */
+    Duration backoff(int attempts) {
+        long base = initialBackoff.toMillis() << Math.min(attempts - 1, 20);
+        long capped = Math.min(base, maxBackoff.toMillis());
+        long jitter = ThreadLocalRandom.current().nextLong(capped / 5 + 1);
+        return Duration.ofMillis(capped + jitter);
+    }
+
+    private static Map<Object, Exception> allFailed(Collection<MimeMessage> messages, Exception cause) {
+        Map<Object, Exception> failures = new HashMap<>();
+        for (MimeMessage message : messages) {
+            failures.put(message, cause);
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.auracontrol.shared.email;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Integer> {
+
+    /**
+     * Leases due rows (and rows whose lease ran out with their node) until {@code leaseUntil}.
+     * The row locks only last for this statement's transaction; the lease keeps other nodes off the
+     * rows while they are sent. SKIP LOCKED lets several nodes claim at once without blocking.
+     */
+    @Query(value = "UPDATE email_outbox SET status = 'SENDING', locked_until = :leaseUntil " +
+            "WHERE outbox_id IN (" +
+            "SELECT outbox_id FROM email_outbox " +
+            "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+            "OR (status = 'SENDING' AND locked_until < :now) " +
+            "ORDER BY next_attempt_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED) " +
+            "RETURNING *",
+            nativeQuery = true)
+    List<EmailOutboxMessage> claimDue(@Param("now") LocalDateTime now,
+                                      @Param("leaseUntil") LocalDateTime leaseUntil,
+                                      @Param("limit") int limit);
+
+    // Ends the lease; the row is detached by now, so its changes are written explicitly
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :status, m.attempts = :attempts, " +
+            "m.nextAttemptAt = :nextAttemptAt, m.lastError = :lastError, m.sentAt = :sentAt, m.lockedUntil = null " +
+            "WHERE m.outboxId = :id")
+    void recordOutcome(@Param("id") Integer id,
+                       @Param("status") String status,
+                       @Param("attempts") int attempts,
+                       @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                       @Param("lastError") String lastError,
+                       @Param("sentAt") LocalDateTime sentAt);
+
+    long countByStatus(String status);
+}
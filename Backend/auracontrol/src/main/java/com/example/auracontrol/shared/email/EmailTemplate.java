@@ -0,0 +1,142 @@
+package com.example.auracontrol.shared.email;
+
+import jakarta.mail.internet.MimeUtility;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An email template compiled once into alternating literal and placeholder segments.
+ *
+ * <p>Source format: an optional first line {@code <!-- subject: ... -->}, then the HTML body.
+ * Placeholders are written {@code {{name}}}; values are HTML-escaped in the body.
+ * Rendering appends the segments into a per-thread buffer that is reused across messages,
+ * and a subject without placeholders is RFC 2047 encoded once, at compile time.</p>
+ */
+public final class EmailTemplate {
+    private static final String SUBJECT_START = "<!-- subject:";
+    private static final String SUBJECT_END = "-->";
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    private final String name;
+    private final Segments subject;
+    private final Segments body;
+    private final String encodedSubject;
+
+    private EmailTemplate(String name, Segments subject, Segments body) {
+        this.name = name;
+        this.subject = subject;
+        this.body = body;
+        this.encodedSubject = subject.isConstant() ? encode(subject.literals[0]) : null;
+    }
+
+    public static EmailTemplate compile(String name, String source) {
+        String subjectSource = "";
+        String bodySource = source;
+        if (source.startsWith(SUBJECT_START)) {
+            int end = source.indexOf(SUBJECT_END);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed subject comment in email template " + name);
+            }
+            subjectSource = source.substring(SUBJECT_START.length(), end).trim();
+            int bodyStart = end + SUBJECT_END.length();
+            if (source.startsWith("\r\n", bodyStart)) {
+                bodyStart += 2;
+            } else if (source.startsWith("\n", bodyStart)) {
+                bodyStart += 1;
+            }
+            bodySource = source.substring(bodyStart);
+        }
+        return new EmailTemplate(name, Segments.parse(name, subjectSource), Segments.parse(name, bodySource));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Subject ready to be set as the raw Subject header.
+     */
+    public String encodedSubject(Map<String, String> variables) {
+        if (encodedSubject != null) {
+            return encodedSubject;
+        }
+        StringBuilder out = new StringBuilder(subject.literalLength + 32);
+        subject.appendTo(out, variables, false);
+        return encode(out.toString());
+    }
+
+    public String renderBody(Map<String, String> variables) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        body.appendTo(out, variables, true);
+        String html = out.toString();
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            // Don't pin an unusually large buffer to a pooled thread
+            BUFFER.remove();
+        }
+        return html;
+    }
+
+    private static String encode(String text) {
+        try {
+            return MimeUtility.fold(9, MimeUtility.encodeText(text, "UTF-8", null));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("UTF-8 is not supported", e);
+        }
+    }
+
+    /**
+     * literals.length == names.length + 1; the output is literals[0] names[0] literals[1] ... literals[n].
+     */
+    private record Segments(String[] literals, String[] names, int literalLength) {
+
+        static Segments parse(String template, String source) {
+            List<String> literals = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            int literalLength = 0;
+            int position = 0;
+            while (true) {
+                int open = source.indexOf("{{", position);
+                if (open < 0) {
+                    break;
+                }
+                int close = source.indexOf("}}", open + 2);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed placeholder in email template " + template);
+                }
+                String literal = source.substring(position, open);
+                literals.add(literal);
+                literalLength += literal.length();
+                names.add(source.substring(open + 2, close).trim());
+                position = close + 2;
+            }
+            String tail = source.substring(position);
+            literals.add(tail);
+            literalLength += tail.length();
+            return new Segments(literals.toArray(new String[0]), names.toArray(new String[0]), literalLength);
+        }
+
+        boolean isConstant() {
+            return names.length == 0;
+        }
+
+        void appendTo(StringBuilder out, Map<String, String> variables, boolean escapeHtml) {
+            out.ensureCapacity(out.length() + literalLength + names.length * 64);
+            out.append(literals[0]);
+            for (int i = 0; i < names.length; i++) {
+                String value = variables.get(names[i]);
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing email variable: " + names[i]);
+                }
+                out.append(escapeHtml ? HtmlUtils.htmlEscape(value) : value);
+                out.append(literals[i + 1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.auracontrol.shared.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads {@code <name>.html} templates from {@code app.mail.templates.location}
+ * (e.g. {@code classpath:templates/email/} or {@code file:/etc/aura/email/}) and keeps them compiled.
+ * Templates on the file system are recompiled when the file changes, checked at most every few seconds.
+ * If a changed file fails to compile, the last good version keeps being served (and the failure is
+ * logged and counted in {@code mail.templates.reload.failed}) until the file changes again.
+ */
+@Component
+public class EmailTemplateRegistry {
+    private static final Logger log = LoggerFactory.getLogger(EmailTemplateRegistry.class);
+    private static final long CHECK_INTERVAL_MS = 5_000;
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+    private final boolean checkForChanges;
+    private final Map<String, Loaded> templates = new ConcurrentHashMap<>();
+    private final Counter reloadFailures;
+
+    public EmailTemplateRegistry(ResourceLoader resourceLoader,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.mail.templates.location:classpath:templates/email/}") String location,
+                                 @Value("${app.mail.templates.check-for-changes:true}") boolean checkForChanges) {
+        this.resourceLoader = resourceLoader;
+        this.location = location.endsWith("/") ? location : location + "/";
+        this.checkForChanges = checkForChanges;
+        this.reloadFailures = Counter.builder("mail.templates.reload.failed")
+                .description("Changed email templates that failed to recompile; the previous version is still served")
+                .register(meterRegistry);
+    }
+
+    public EmailTemplate get(String name) {
+        Loaded loaded = templates.get(name);
+        if (loaded == null) {
+            loaded = templates.computeIfAbsent(name, this::load);
+        } else if (checkForChanges && loaded.isStale()) {
+            Loaded stale = loaded;
+            loaded = templates.compute(name, (key, current) -> current == stale ? reload(key, current) : current);
+        }
+        return loaded.template;
+    }
+
+    private Loaded reload(String name, Loaded current) {
+        try {
+            return load(name);
+        } catch (RuntimeException e) {
+            reloadFailures.increment();
+            log.error("Email template '{}' changed but cannot be compiled, still serving the previous version: {}",
+                    name, e.getMessage());
+            // Remember the broken version, so it is only retried once the file changes again
+            return new Loaded(current.template, current.resource, lastModified(current.resource));
+        }
+    }
+
+    private Loaded load(String name) {
+        Resource resource = resourceLoader.getResource(location + name + ".html");
+        if (!resource.exists()) {
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        }
+        try {
+            String source = resource.getContentAsString(StandardCharsets.UTF_8);
+            log.info("Compiled email template '{}' from {}", name, resource.getDescription());
+            return new Loaded(EmailTemplate.compile(name, source), resource, lastModified(resource));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read email template " + name, e);
+        }
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.isFile() ? resource.lastModified() : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static final class Loaded {
+        final EmailTemplate template;
+        final Resource resource;
+        final long lastModified;
+        volatile long checkedAt = System.currentTimeMillis();
+
+        Loaded(EmailTemplate template, Resource resource, long lastModified) {
+            this.template = template;
+            this.resource = resource;
+            this.lastModified = lastModified;
+        }
+
+        boolean isStale() {
+            if (lastModified < 0) {
+                // Classpath templates inside the jar cannot change at runtime
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            if (now - checkedAt < CHECK_INTERVAL_MS) {
+                return false;
+            }
+            checkedAt = now;
+            return lastModified(resource) != lastModified;
+        }
+    }
+}
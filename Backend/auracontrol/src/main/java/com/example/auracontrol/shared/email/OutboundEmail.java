@@ -0,0 +1,9 @@
+package com.example.auracontrol.shared.email;
+
+import java.util.Map;
+
+/**
+ * One recipient and its template variables, for bulk enqueueing.
+ */
+public record OutboundEmail(String recipient, Map<String, String> variables) {
+}
@@ -0,0 +1,93 @@
+package com.example.auracontrol.shared.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Plain JDBC on idempotency_key. Every statement runs in its own transaction (the callers are not
+ * transactional), so a claimed key is visible to a concurrent retry right away.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param statusCode     null while the first request is still running
+     * @param outcomeUnknown the request completed but its response could not be stored
+     */
+    public record StoredKey(byte[] requestHash, Integer statusCode, String responseBody, boolean outcomeUnknown) {
+    }
+
+    /**
+     * Inserts the key, or takes over a row whose lease or retention has run out.
+     *
+     * @return false if the key is held by another request or already has a stored response
+     */
+    public boolean claim(int userId, String key, byte[] requestHash, LocalDateTime now, LocalDateTime leaseUntil) {
+        return jdbcTemplate.update(
+                "INSERT INTO idempotency_key (user_id, idem_key, request_hash, expires_at) " +
+                        "VALUES (?, ?, ?, ?) " +
+                        "ON CONFLICT (user_id, idem_key) DO UPDATE SET " +
+                        "request_hash = EXCLUDED.request_hash, status_code = NULL, response_body = NULL, outcome_unknown = false, " +
+                        "created_at = CURRENT_TIMESTAMP, expires_at = EXCLUDED.expires_at " +
+                        "WHERE idempotency_key.expires_at < ?",
+                userId, key, requestHash, Timestamp.valueOf(leaseUntil), Timestamp.valueOf(now)) == 1;
+    }
+
+    public Optional<StoredKey> find(int userId, String key) {
+        return jdbcTemplate.query(
+                "SELECT request_hash, status_code, response_body, outcome_unknown FROM idempotency_key " +
+                        "WHERE user_id = ? AND idem_key = ?",
+                (rs, rowNum) -> new StoredKey(
+                        rs.getBytes("request_hash"),
+                        rs.getObject("status_code", Integer.class),
+                        rs.getString("response_body"),
+                        rs.getBoolean("outcome_unknown")),
+                userId, key
+        ).stream().findFirst();
+    }
+
+    public void complete(int userId, String key, int statusCode, String responseBody, LocalDateTime expiresAt) {
+        jdbcTemplate.update(
+                "UPDATE idempotency_key SET status_code = ?, response_body = ?, expires_at = ? " +
+                        "WHERE user_id = ? AND idem_key = ?",
+                statusCode, responseBody, Timestamp.valueOf(expiresAt), userId, key);
+    }
+
+    /**
+     * Keeps a key whose request completed without a stored response until {@code expiresAt},
+     * so that it is never claimed and run again before then.
+     */
+    public void markOutcomeUnknown(int userId, String key, LocalDateTime expiresAt) {
+        jdbcTemplate.update(
+                "UPDATE idempotency_key SET outcome_unknown = true, expires_at = ? " +
+                        "WHERE user_id = ? AND idem_key = ? AND status_code IS NULL",
+                Timestamp.valueOf(expiresAt), userId, key);
+    }
+
+    /**
+     * Drops a key whose request failed, so the client can retry it as a new request.
+     */
+    public void release(int userId, String key) {
+        jdbcTemplate.update(
+                "DELETE FROM idempotency_key WHERE user_id = ? AND idem_key = ? AND status_code IS NULL " +
+                        "AND NOT outcome_unknown",
+                userId, key);
+    }
+
+    /**
+     * Deletes up to {@code limit} expired keys; served by idx_idempotency_key_expires.
+     */
+    public int purgeExpired(LocalDateTime now, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM idempotency_key WHERE ctid IN (" +
+                        "SELECT ctid FROM idempotency_key WHERE expires_at < ? LIMIT ?)",
+                Timestamp.valueOf(now), limit);
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.auracontrol.shared.idempotency;
+
+import com.example.auracontrol.exception.ConcurrencyConflictException;
+import com.example.auracontrol.exception.DuplicateResourceException;
+import com.example.auracontrol.exception.InvalidRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * {@code Idempotency-Key} support for write endpoints.
+ *
+ * <p>The first request with a key claims it in idempotency_key, runs, and stores its 2xx response;
+ * a retry with the same key and the same request gets that response back (with
+ * {@code Idempotent-Replayed: true}) without running again. A failed request releases the key, so
+ * retrying it is a normal new attempt. While the first request is still running, a retry gets a
+ * 409; a key reused for a different request gets a 400. Keys are scoped to the user and kept for
+ * {@code app.idempotency.ttl}.</p>
+ *
+ * <p>If the response cannot be stored, the key is kept as completed with an unknown outcome for the
+ * same retention, and retries get a 409 rather than running the write again.</p>
+ */
+@Service
+public class IdempotencyService {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int PURGE_BATCH = 5_000;
+    // claim and replay both miss only when the key is released between them
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    private final IdempotencyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Duration lease;
+
+    private final Map<String, Counter> outcomes = new ConcurrentHashMap<>();
+
+    public IdempotencyService(
+            IdempotencyRepository repository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.idempotency.ttl:24h}") Duration ttl,
+            @Value("${app.idempotency.lease:2m}") Duration lease
+    ) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.lease = lease;
+    }
+
+    /**
+     * Runs {@code action} once per key.
+     *
+     * @param key       the Idempotency-Key header; null runs the action without any bookkeeping
+     * @param operation names the endpoint, so one key cannot be replayed on another endpoint
+     * @param request   path variables and body of the call; a retry must send the same values
+     */
+    public ResponseEntity<?> execute(String key, Integer userId, String operation, Object request,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (key == null || userId == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters.");
+        }
+        byte[] requestHash = hash(operation, request);
+
+        for (int attempt = 1; ; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            if (repository.claim(userId, key, requestHash, now, now.plus(lease))) {
+                break;
+            }
+            Optional<ResponseEntity<?>> replayed = replay(userId, key, operation, requestHash);
+            if (replayed.isPresent()) {
+                return replayed.get();
+            }
+            // the holder released it in between: claim again, but not forever
+            if (attempt == MAX_CLAIM_ATTEMPTS) {
+                count(operation, "contended");
+                throw new ConcurrencyConflictException(
+                        "The " + HEADER + " is contended by concurrent requests, please retry.", 1, null);
+            }
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            repository.release(userId, key);
+            throw e;
+        }
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            repository.release(userId, key);
+            return response;
+        }
+        try {
+            repository.complete(userId, key, response.getStatusCode().value(),
+                    objectMapper.writeValueAsString(response.getBody()), LocalDateTime.now().plus(ttl));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // The work is done and committed: a retry must not run it again, even after the lease
+            log.warn("Could not store the response of {} for {} {}: {}", operation, HEADER, key, e.getMessage());
+            try {
+                repository.markOutcomeUnknown(userId, key, LocalDateTime.now().plus(ttl));
+            } catch (RuntimeException markFailure) {
+                log.error("Could not keep {} {} of {}; a retry after the lease will run it again",
+                        HEADER, key, operation, markFailure);
+            }
+        }
+        count(operation, "executed");
+        return response;
+    }
+
+    private Optional<ResponseEntity<?>> replay(int userId, String key, String operation, byte[] requestHash) {
+        Optional<IdempotencyRepository.StoredKey> stored = repository.find(userId, key);
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        IdempotencyRepository.StoredKey row = stored.get();
+        if (!MessageDigest.isEqual(row.requestHash(), requestHash)) {
+            count(operation, "mismatch");
+            throw new InvalidRequestException(HEADER + " was already used for a different request.");
+        }
+        if (row.outcomeUnknown()) {
+            count(operation, "outcome_unknown");
+            throw new DuplicateResourceException("A request with this " + HEADER
+                    + " was already processed, but its response is not available. Check the result before sending it again.");
+        }
+        if (row.statusCode() == null) {
+            count(operation, "in_progress");
+            throw new DuplicateResourceException("A request with this " + HEADER + " is still being processed.");
+        }
+        count(operation, "replayed");
+        try {
+            return Optional.<ResponseEntity<?>>of(ResponseEntity.status(row.statusCode())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(REPLAYED_HEADER, "true")
+                    .body(objectMapper.readTree(row.responseBody())));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response of " + HEADER + " " + key + " is not valid JSON", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}",
+            initialDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        // Short batches keep each delete's locks and WAL small
+        do {
+            deleted = repository.purgeExpired(now, PURGE_BATCH);
+            total += deleted;
+        } while (deleted == PURGE_BATCH);
+        if (total > 0) {
+            log.info("Purged {} expired idempotency keys", total);
+        }
+    }
+
+    private byte[] hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request of " + operation + " cannot be serialized", e);
+        }
+    }
+
+    private void count(String operation, String outcome) {
+        outcomes.computeIfAbsent(operation + "|" + outcome,
+                k -> Counter.builder("idempotency.requests")
+                        .description("Requests carrying an Idempotency-Key, by what happened to them")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .increment();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.auracontrol.shared.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Bucket of {@code capacity} tokens, refilled continuously at {@code refillTokens} per {@code refillPeriod}.
+ */
+public record Bandwidth(long capacity, long refillTokens, Duration refillPeriod) {
+
+    public Bandwidth {
+        if (capacity <= 0 || refillTokens <= 0 || refillPeriod.isZero() || refillPeriod.isNegative()) {
+            throw new IllegalArgumentException("Rate limit capacity, refill tokens and refill period must be positive");
+        }
+    }
+
+    /**
+     * Time to regain one token, in nanoseconds.
+     */
+    public double nanosPerToken() {
+        return (double) refillPeriod.toNanos() / refillTokens;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.auracontrol.shared.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets held in memory.
+ *
+ * <p>Each bucket is an immutable (tokens, timestamp) pair behind an {@link AtomicReference};
+ * a request refills lazily from the elapsed time and swaps in the new state with CAS,
+ * retrying on contention. No thread ever blocks on another.</p>
+ *
+ * Registered by {@code RateLimitConfig} unless another {@link RateLimiter} bean is present.
+ */
+public class InMemoryTokenBucketRateLimiter implements RateLimiter {
+
+    private record State(double tokens, long refilledAt) {
+    }
+
+    private final Cache<String, AtomicReference<State>> buckets;
+    private final LongSupplier nanoClock;
+
+    public InMemoryTokenBucketRateLimiter(RateLimitProperties properties) {
+        this(properties.getMaxKeys(), Duration.ofHours(1), System::nanoTime);
+    }
+
+    public InMemoryTokenBucketRateLimiter(long maxKeys, Duration idleExpiry, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleExpiry)
+                .build();
+    }
+
+    @Override
+    public Decision tryConsume(String key, Bandwidth bandwidth) {
+        AtomicReference<State> bucket = buckets.get(key,
+                k -> new AtomicReference<>(new State(bandwidth.capacity(), nanoClock.getAsLong())));
+        double nanosPerToken = bandwidth.nanosPerToken();
+
+        while (true) {
+            State current = bucket.get();
+            long now = nanoClock.getAsLong();
+            long elapsed = Math.max(0, now - current.refilledAt());
+            double available = Math.min(bandwidth.capacity(), current.tokens() + elapsed / nanosPerToken);
+
+            if (available < 1.0) {
+                long retryAfter = (long) Math.ceil((1.0 - available) * nanosPerToken);
+                return new Decision(false, 0, retryAfter);
+            }
+            State next = new State(available - 1.0, now);
+            if (bucket.compareAndSet(current, next)) {
+                return new Decision(true, (long) next.tokens(), 0);
+            }
+        }
+    }
+}
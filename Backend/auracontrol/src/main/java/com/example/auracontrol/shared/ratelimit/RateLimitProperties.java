@@ -0,0 +1,44 @@
+package com.example.auracontrol.shared.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-route-family token bucket limits, bound from {@code app.rate-limit}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Upper bound on tracked keys per node; idle buckets are dropped after they refill completely
+    private long maxKeys = 100_000;
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        private String name;
+
+        // Ant-style path patterns, e.g. /api/booking/available-*
+        private List<String> patterns = new ArrayList<>();
+
+        // Empty = every method
+        private List<String> methods = new ArrayList<>();
+
+        private long capacity = 20;
+        private long refillTokens = 20;
+        private Duration refillPeriod = Duration.ofMinutes(1);
+
+        public Bandwidth toBandwidth() {
+            return new Bandwidth(capacity, refillTokens, refillPeriod);
+        }
+    }
+}
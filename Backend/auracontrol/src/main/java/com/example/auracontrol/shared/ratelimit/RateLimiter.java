@@ -0,0 +1,17 @@
+package com.example.auracontrol.shared.ratelimit;
+
+/**
+ * Token bucket store. The default keeps buckets in memory on each node; a shared
+ * implementation (e.g. Redis or Postgres backed) can be registered instead when
+ * limits must hold across nodes.
+ */
+public interface RateLimiter {
+
+    Decision tryConsume(String key, Bandwidth bandwidth);
+
+    /**
+     * @param retryAfterNanos how long until one token is available again; 0 when allowed
+     */
+    record Decision(boolean allowed, long remaining, long retryAfterNanos) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.auracontrol.shared.retry;
+
+import com.example.auracontrol.exception.ConcurrencyConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries {@link RetryOnConflict} methods on deadlocks, serialization failures and lock timeouts.
+ *
+ * <ul>
+ *   <li>Ordered before the transaction interceptor, so each attempt runs in its own transaction
+ *       and the failed one is already rolled back.</li>
+ *   <li>Does nothing when a transaction is already active: the caller's transaction is aborted
+ *       too and only the caller can start over.</li>
+ *   <li>Backoff is exponential with full jitter, so the transactions that deadlocked each other
+ *       do not collide again on the next attempt.</li>
+ * </ul>
+ * When the attempts run out the conflict surfaces as {@link ConcurrencyConflictException} (503
+ * with Retry-After) instead of a 500.
+ *
+ * Meters: {@code db.conflict.retries} (operation, sqlstate) per retry and {@code db.conflict.calls}
+ * (operation, outcome = recovered / exhausted / not_retried) per call that hit a conflict.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConflictRetryAspect {
+    private static final Logger log = LoggerFactory.getLogger(ConflictRetryAspect.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public ConflictRetryAspect(
+            MeterRegistry meterRegistry,
+            @Value("${app.conflict-retry.max-attempts:4}") int maxAttempts,
+            @Value("${app.conflict-retry.initial-backoff:20ms}") Duration initialBackoff,
+            @Value("${app.conflict-retry.max-backoff:500ms}") Duration maxBackoff
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = Math.max(1, initialBackoff.toMillis());
+        this.maxBackoffMillis = Math.max(initialBackoffMillis, maxBackoff.toMillis());
+    }
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        String operation = retryOnConflict.value();
+        boolean joined = TransactionSynchronizationManager.isActualTransactionActive();
+
+        for (int attempt = 1; ; attempt++) {
+            Optional<String> sqlState;
+            RuntimeException failure;
+            try {
+                Object result = joinPoint.proceed();
+                if (attempt > 1) {
+                    count("db.conflict.calls", operation, "outcome", "recovered");
+                }
+                return result;
+            } catch (RuntimeException e) {
+                sqlState = SqlConflicts.retryableState(e);
+                if (sqlState.isEmpty()) {
+                    throw e;
+                }
+                failure = e;
+            }
+
+            if (joined) {
+                count("db.conflict.calls", operation, "outcome", "not_retried");
+                throw failure;
+            }
+            if (attempt >= maxAttempts) {
+                count("db.conflict.calls", operation, "outcome", "exhausted");
+                log.warn("{} gave up after {} attempts on SQLSTATE {}", operation, attempt, sqlState.get());
+                throw new ConcurrencyConflictException(
+                        "The schedule is busy right now, please try again.", 1, failure);
+            }
+
+            count("db.conflict.retries", operation, "sqlstate", sqlState.get());
+            log.debug("{} attempt {} hit SQLSTATE {}, retrying", operation, attempt, sqlState.get());
+            if (!backoff(attempt)) {
+                throw failure;
+            }
+        }
+    }
+
+    // full jitter: uniform in [0, min(max, initial * 2^(attempt - 1))]
+    private boolean backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void count(String name, String operation, String tag, String value) {
+        counters.computeIfAbsent(name + "|" + operation + "|" + value,
+                key -> Counter.builder(name)
+                        .description("Booking transactions aborted by lock or serialization conflicts")
+                        .tag("operation", operation)
+                        .tag(tag, value)
+                        .register(meterRegistry))
+                .increment();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.auracontrol.shared.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a transactional method when Postgres aborts its transaction with a lock or
+ * serialization conflict (see {@link SqlConflicts}). The retry wraps the transaction, so every
+ * attempt starts a fresh one; the method must not have effects outside the database that a
+ * second run would repeat.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    /**
+     * Operation tag of the retry meters, e.g. {@code create}.
+     */
+    String value();
+}
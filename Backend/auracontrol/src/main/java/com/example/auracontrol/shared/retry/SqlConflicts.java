@@ -0,0 +1,45 @@
+package com.example.auracontrol.shared.retry;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Postgres errors after which the whole transaction was rolled back and running it again can
+ * succeed. Recognised by SQLSTATE anywhere in the cause chain, so it works the same whether the
+ * error comes through Hibernate, Spring's translation or plain JDBC.
+ */
+public final class SqlConflicts {
+    public static final String DEADLOCK_DETECTED = "40P01";
+    public static final String SERIALIZATION_FAILURE = "40001";
+    public static final String LOCK_NOT_AVAILABLE = "55P03";
+
+    private static final Set<String> RETRYABLE = Set.of(DEADLOCK_DETECTED, SERIALIZATION_FAILURE, LOCK_NOT_AVAILABLE);
+
+    private SqlConflicts() {
+    }
+
+    /**
+     * @return the SQLSTATE if the error is a retryable conflict
+     */
+    public static Optional<String> retryableState(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql) {
+                // a batch keeps the real error in the next-exception chain
+                for (SQLException next = sql; next != null; next = next.getNextException()) {
+                    if (next.getSQLState() != null && RETRYABLE.contains(next.getSQLState())) {
+                        return Optional.of(next.getSQLState());
+                    }
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static boolean isRetryable(Throwable error) {
+        return retryableState(error).isPresent();
+    }
+}
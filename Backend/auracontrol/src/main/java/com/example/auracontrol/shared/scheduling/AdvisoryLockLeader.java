@@ -0,0 +1,103 @@
+package com.example.auracontrol.shared.scheduling;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Leader election for scheduled jobs on a Postgres session advisory lock: the node that gets the
+ * lock runs the job, the others skip this round. The lock dies with the connection, so a crashed
+ * leader never blocks the next run.
+ *
+ * <p>The session comes straight from the Hikari pool, bypassing any wrapper around it, so that it
+ * can be evicted when the unlock fails: returning it to the pool would keep the lock held by an
+ * idle pooled session, and this node would stay leader for good.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class AdvisoryLockLeader {
+    private static final Logger log = LoggerFactory.getLogger(AdvisoryLockLeader.class);
+
+    private final DataSource dataSource;
+
+    /**
+     * @return false if another node currently holds the lock and the task was not run
+     */
+    public boolean runIfLeader(long lockKey, Runnable task) {
+        DataSource pool = physicalPool();
+        // Dedicated connection outside any transaction: the lock lives as long as this session
+        try (Connection connection = pool.getConnection()) {
+            if (!tryLock(connection, lockKey)) {
+                return false;
+            }
+            try {
+                task.run();
+                return true;
+            } finally {
+                if (!unlock(connection, lockKey)) {
+                    evict(pool, connection, lockKey);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Advisory lock " + lockKey + " failed", e);
+        }
+    }
+
+    private static boolean tryLock(Connection connection, long lockKey) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, lockKey);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static boolean unlock(Connection connection, long lockKey) {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, lockKey);
+            statement.execute();
+            return true;
+        } catch (SQLException e) {
+            log.warn("Could not release advisory lock {}: {}", lockKey, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Closes the session for real, which is what releases a session-level advisory lock; a plain
+     * close() would only return it to the pool with the lock still held.
+     */
+    private static void evict(DataSource pool, Connection connection, long lockKey) {
+        if (pool instanceof HikariDataSource hikari) {
+            hikari.evictConnection(connection);
+            log.warn("Evicted the pooled connection holding advisory lock {}", lockKey);
+            return;
+        }
+        try {
+            connection.abort(Runnable::run);
+            log.warn("Aborted the connection holding advisory lock {}", lockKey);
+        } catch (SQLException e) {
+            log.error("Could not close the connection holding advisory lock {}: {}", lockKey, e.getMessage());
+        }
+    }
+
+    // The Hikari pool under the tracing/limiting/routing wrappers (the primary, when routing)
+    private DataSource physicalPool() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException e) {
+            log.debug("Cannot unwrap the pool behind {}: {}", dataSource, e.getMessage());
+        }
+        return dataSource;
+    }
+}
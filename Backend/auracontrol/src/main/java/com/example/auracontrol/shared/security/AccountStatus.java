@@ -0,0 +1,8 @@
+package com.example.auracontrol.shared.security;
+
+/**
+ * Minimal per-user state the JWT filter needs on every request.
+ * customerId / technicianId are null when the user has no such profile.
+ */
+public record AccountStatus(Integer userId, boolean enabled, Integer customerId, Integer technicianId) {
+}
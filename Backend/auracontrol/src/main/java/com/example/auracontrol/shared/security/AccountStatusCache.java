@@ -0,0 +1,65 @@
+package com.example.auracontrol.shared.security;
+
+import com.example.auracontrol.user.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived cache of {@link AccountStatus} keyed by user id.
+ * Replaces the full user load in {@link JwtAuthFilter}: a disabled account is rejected
+ * at the latest after the TTL, or immediately when the caller invalidates the entry.
+ */
+@Component
+public class AccountStatusCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Integer, Optional<AccountStatus>> cache;
+
+    public AccountStatusCache(UserRepository userRepository,
+                              @Value("${app.security.account-status.ttl:30s}") Duration ttl,
+                              @Value("${app.security.account-status.max-size:100000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public Optional<AccountStatus> get(Integer userId) {
+        return cache.get(userId, userRepository::findAccountStatus);
+    }
+
+    public boolean isEnabled(Integer userId) {
+        return get(userId).map(AccountStatus::enabled).orElse(false);
+    }
+
+    /**
+     * Drops the entry now and, inside a transaction, once more after commit so a
+     * concurrent request cannot re-cache the pre-commit state.
+     */
+    public void invalidate(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.auracontrol.shared.security;
+
+import com.example.auracontrol.user.Role;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal built from the JWT claims and the cached {@link AccountStatus}, so authenticated
+ * requests don't have to load the User entity. Controllers receive it through
+ * {@code @AuthenticationPrincipal} and hand the ids to the services.
+ * Carries no password: it only exists after the token signature has been verified.
+ */
+@Getter
+public class AuthenticatedUser implements UserDetails {
+
+    private final Integer userId;
+    private final String email;
+    private final Role role;
+    private final Integer customerId;
+    private final Integer technicianId;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Integer userId, String email, Role role, Integer customerId, Integer technicianId) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.customerId = customerId;
+        this.technicianId = technicianId;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    public AuthenticatedUser withProfiles(AccountStatus status) {
+        return new AuthenticatedUser(userId, email, role, status.customerId(), status.technicianId());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{userId=" + userId + ", email='" + email + "', role=" + role
+                + ", customerId=" + customerId + ", technicianId=" + technicianId + "}";
+    }
+}
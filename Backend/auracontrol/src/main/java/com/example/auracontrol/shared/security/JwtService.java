@@ -1,32 +1,38 @@
 package com.example.auracontrol.shared.security;
 
 
+import com.example.auracontrol.user.Role;
 import com.example.auracontrol.user.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 @Service
 public class JwtService {
-    @Value("${app.jwt.secret}")
-    private String JWT_SECRET;
+    private final long jwtExpirationMs;
 
-    @Value("${app.jwt.expiration}")
-    private long JWT_EXPIRATION_MS;
+    // Decoded once; both are immutable and thread-safe
+    private final SecretKey signingKey;
+    private final JwtParser parser;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    public JwtService(@Value("${app.jwt.secret}") String jwtSecret,
+                      @Value("${app.jwt.expiration}") long jwtExpirationMs) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     public String generateToken(User user) {
@@ -39,41 +45,42 @@ public class JwtService {
     }
 
     public String createToken(Map<String, Object> claims, UserDetails userDetails ) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis()+JWT_EXPIRATION_MS))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .claims(claims)
+                .subject(userDetails.getUsername())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + jwtExpirationMs))
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
 
     }
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
 
-    }
-    private boolean isTokenExpired(String token) {
-        return getExpirationDate(token).before(new Date());
-    }
-    private Date getExpirationDate(String token) {
-        return  extractClaim(token, Claims::getExpiration);
-    }
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    /**
+     * Verifies signature and expiry in a single parse.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-    }
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(JWT_SECRET);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Builds the principal from the {@code userId} and {@code role} claims issued by {@link #generateToken}.
+     * Customer/technician ids are not in the token; the caller fills them in from {@link AccountStatusCache}.
+     * Returns null for tokens that lack the claims.
+     */
+    public AuthenticatedUser toPrincipal(Claims claims) {
+        Object userId = claims.get("userId");
+        Object role = claims.get("role");
+        if (claims.getSubject() == null || !(userId instanceof Number) || !(role instanceof String)) {
+            return null;
+        }
+        try {
+            return new AuthenticatedUser(((Number) userId).intValue(), claims.getSubject(), Role.valueOf((String) role),
+                    null, null);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 }
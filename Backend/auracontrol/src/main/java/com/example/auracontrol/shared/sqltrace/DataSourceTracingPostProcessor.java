@@ -0,0 +1,37 @@
+package com.example.auracontrol.shared.sqltrace;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource with a datasource-proxy that feeds {@link SqlTraceListener}.
+ * Replaces {@code spring.jpa.show-sql}, which printed every statement synchronously.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sql-trace.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceTracingPostProcessor implements BeanPostProcessor {
+
+    // Resolved lazily so the listener and its MeterRegistry are still post-processed normally
+    private final ObjectProvider<SqlTraceListener> listener;
+
+    public DataSourceTracingPostProcessor(ObjectProvider<SqlTraceListener> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(listener.getObject())
+                    .build();
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.auracontrol.shared.sqltrace;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adds an interceptor to every Spring Data repository that records which repository method is
+ * running, so traced statements and N+1 warnings can name their origin.
+ * Latency histograms per repository method come from Boot's spring.data.repository.invocations timer.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sql-trace.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryTracingPostProcessor implements BeanPostProcessor {
+
+    private static final Map<Method, String> LABELS = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                        String repository = repositoryInformation.getRepositoryInterface().getSimpleName();
+                        proxyFactory.addAdvice(tracingInterceptor(repository));
+                    }));
+        }
+        return bean;
+    }
+
+    private static MethodInterceptor tracingInterceptor(String repository) {
+        return invocation -> {
+            String label = LABELS.computeIfAbsent(invocation.getMethod(),
+                    method -> repository + "." + method.getName());
+            String previous = SqlTraceContext.enterRepositoryMethod(label);
+            try {
+                return invocation.proceed();
+            } finally {
+                SqlTraceContext.exitRepositoryMethod(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.auracontrol.shared.sqltrace;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-thread tracing state: the repository method currently executing and, inside an HTTP
+ * request, how often each statement has run. Work the request hands to another thread carries
+ * its statement counts along through {@link #wrap(Runnable)}.
+ */
+public final class SqlTraceContext {
+
+    // Distinct statements tracked per request; anything beyond is not counted
+    private static final int MAX_STATEMENTS = 256;
+
+    private static final ThreadLocal<String> REPOSITORY_METHOD = new ThreadLocal<>();
+    private static final ThreadLocal<Map<String, Integer>> REQUEST_STATEMENTS = new ThreadLocal<>();
+
+    private SqlTraceContext() {
+    }
+
+    static String repositoryMethod() {
+        return REPOSITORY_METHOD.get();
+    }
+
+    /**
+     * @return the previous value, to be restored when the call returns
+     */
+    static String enterRepositoryMethod(String label) {
+        String previous = REPOSITORY_METHOD.get();
+        REPOSITORY_METHOD.set(label);
+        return previous;
+    }
+
+    static void exitRepositoryMethod(String previous) {
+        if (previous == null) {
+            REPOSITORY_METHOD.remove();
+        } else {
+            REPOSITORY_METHOD.set(previous);
+        }
+    }
+
+    static void beginRequest() {
+        REQUEST_STATEMENTS.set(new ConcurrentHashMap<>());
+    }
+
+    static Map<String, Integer> endRequest() {
+        Map<String, Integer> statements = REQUEST_STATEMENTS.get();
+        REQUEST_STATEMENTS.remove();
+        return statements != null ? statements : Map.of();
+    }
+
+    /**
+     * Makes {@code task} count its statements into the calling thread's request, wherever it runs.
+     */
+    public static Runnable wrap(Runnable task) {
+        Map<String, Integer> statements = REQUEST_STATEMENTS.get();
+        if (statements == null) {
+            return task;
+        }
+        return () -> {
+            Map<String, Integer> previous = REQUEST_STATEMENTS.get();
+            REQUEST_STATEMENTS.set(statements);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    REQUEST_STATEMENTS.remove();
+                } else {
+                    REQUEST_STATEMENTS.set(previous);
+                }
+            }
+        };
+    }
+
+    static void countStatement(String sql) {
+        Map<String, Integer> statements = REQUEST_STATEMENTS.get();
+        if (statements != null && (statements.size() < MAX_STATEMENTS || statements.containsKey(sql))) {
+            statements.merge(sql, 1, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.auracontrol.shared.sqltrace;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * N+1 detection: counts statements per request and warns about every statement that ran
+ * more than {@code app.sql-trace.repeated-statement-threshold} times. Statements are compared on their
+ * prepared SQL text, so the same query with different bind values counts as one.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "app.sql-trace.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTraceFilter extends OncePerRequestFilter {
+
+    private final SqlTraceProperties properties;
+    private final Counter nPlusOneDetections;
+
+    public SqlTraceFilter(SqlTraceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.nPlusOneDetections = Counter.builder("db.sql.n_plus_one")
+                .description("Requests that repeated one statement above the N+1 threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlTraceContext.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            report(request, SqlTraceContext.endRequest());
+        }
+    }
+
+    private void report(HttpServletRequest request, Map<String, Integer> statements) {
+        boolean detected = false;
+        for (Map.Entry<String, Integer> entry : statements.entrySet()) {
+            if (entry.getValue() > properties.getRepeatedStatementThreshold()) {
+                detected = true;
+                SqlTraceListener.traceLog.warn("Possible N+1: {} {} ran {}x: {}",
+                        request.getMethod(), request.getRequestURI(), entry.getValue(), entry.getKey());
+            }
+        }
+        if (detected) {
+            nPlusOneDetections.increment();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.auracontrol.shared.sqltrace;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Receives every statement executed through the proxied DataSource.
+ *
+ * <p>The hot path only counts the statement for N+1 detection and rolls the sampling dice;
+ * formatting happens for sampled or slow statements only, and the "sql-trace" logger is
+ * backed by an async, non-blocking appender (logback-spring.xml).</p>
+ */
+@Component
+public class SqlTraceListener implements QueryExecutionListener {
+    static final Logger traceLog = LoggerFactory.getLogger("sql-trace");
+
+    private final SqlTraceProperties properties;
+    private final Counter slowStatements;
+
+    public SqlTraceListener(SqlTraceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.slowStatements = Counter.builder("db.sql.slow")
+                .description("Statements slower than app.sql-trace.slow-threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo query : queryInfoList) {
+            SqlTraceContext.countStatement(query.getQuery());
+        }
+
+        long elapsedMillis = execInfo.getElapsedTime();
+        boolean slow = elapsedMillis >= properties.getSlowThreshold().toMillis();
+        if (slow) {
+            slowStatements.increment();
+            if (traceLog.isWarnEnabled()) {
+                traceLog.warn("Slow SQL {} ms [{}] {}", elapsedMillis, origin(), describe(execInfo, queryInfoList));
+            }
+        } else if (traceLog.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < properties.getSampleRate()) {
+            traceLog.debug("SQL {} ms [{}] {}", elapsedMillis, origin(), describe(execInfo, queryInfoList));
+        }
+    }
+
+    private static String origin() {
+        String method = SqlTraceContext.repositoryMethod();
+        return method != null ? method : "-";
+    }
+
+    private String describe(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StringBuilder sb = new StringBuilder(128);
+        if (execInfo.isBatch()) {
+            sb.append("batch(").append(execInfo.getBatchSize()).append(") ");
+        }
+        if (!execInfo.isSuccess()) {
+            sb.append("FAILED ");
+        }
+        for (QueryInfo query : queryInfoList) {
+            sb.append(query.getQuery());
+            if (properties.isLogParameters() && !query.getParametersList().isEmpty()) {
+                sb.append(" params=").append(query.getParametersList());
+            }
+            sb.append("; ");
+        }
+        return sb.toString();
+    }
+}
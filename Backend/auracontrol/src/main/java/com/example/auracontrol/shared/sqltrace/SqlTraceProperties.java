@@ -0,0 +1,31 @@
+package com.example.auracontrol.shared.sqltrace;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * SQL tracing settings, bound from {@code app.sql-trace}.
+ * With {@code enabled: false} the DataSource is not proxied at all.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sql-trace")
+public class SqlTraceProperties {
+
+    private boolean enabled = true;
+
+    // Share of statements logged at DEBUG, 0.0 - 1.0
+    private double sampleRate = 0.01;
+
+    // Statements at or above this are always logged at WARN
+    private Duration slowThreshold = Duration.ofMillis(250);
+
+    // Warn when one request runs the same statement more than this many times
+    private int repeatedStatementThreshold = 10;
+
+    // Bind values may contain personal data; keep off outside development
+    private boolean logParameters = false;
+}
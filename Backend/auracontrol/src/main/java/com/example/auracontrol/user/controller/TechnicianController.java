@@ -5,17 +5,19 @@ import com.example.auracontrol.booking.dto.AbsenceRequestDto;
 import com.example.auracontrol.booking.entity.AbsenceRequest;
 import com.example.auracontrol.booking.service.AbsenceRequestService;
 import com.example.auracontrol.exception.ResourceNotFoundException;
+import com.example.auracontrol.shared.security.AuthenticatedUser;
 import com.example.auracontrol.user.dto.CalendarEventDto;
-import com.example.auracontrol.user.entity.Technician;
-import com.example.auracontrol.user.repository.TechnicianRepository;
+import com.example.auracontrol.user.service.ScheduleStreamHub;
 import com.example.auracontrol.user.service.TechnicianService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 @RestController
@@ -24,8 +26,8 @@ import java.util.List;
 public class TechnicianController {
 
     private final AbsenceRequestService absenceRequestService;
-    private final TechnicianRepository technicianRepository;
     private final TechnicianService technicianService;
+    private final ScheduleStreamHub scheduleStreamHub;
 
     // --- API ENDPOINTS ---
 
@@ -35,13 +37,13 @@ public class TechnicianController {
     @PostMapping("/absence-requests")
     public ResponseEntity<AbsenceRequestResponse> createRequest(
             @RequestBody AbsenceRequestDto requestDto,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
         // Use helper method to get the current technician
-        Technician technician = getCurrentTechnician(userDetails);
+        Integer technicianId = getCurrentTechnicianId(principal);
 
         AbsenceRequest savedRequest = absenceRequestService.submitRequest(
-                technician.getTechnicianId(),
+                technicianId,
                 requestDto
         );
 
@@ -54,12 +56,12 @@ public class TechnicianController {
      */
     @GetMapping("/absence-requests")
     public ResponseEntity<List<AbsenceRequestResponse>> getMyAbsenceRequests(
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal AuthenticatedUser principal
     ) {
-        Technician technician = getCurrentTechnician(userDetails);
+        Integer technicianId = getCurrentTechnicianId(principal);
         
         List<AbsenceRequest> requests = absenceRequestService.getTechnicianHistory(
-                technician.getTechnicianId()
+                technicianId
         );
         
         List<AbsenceRequestResponse> response = requests.stream()
@@ -74,29 +76,45 @@ public class TechnicianController {
      */
     @GetMapping("/schedule")
     public ResponseEntity<List<CalendarEventDto>> getMySchedule(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
     ) {
         // Use helper method to get the current technician
-        Technician technician = getCurrentTechnician(userDetails);
+        Integer technicianId = getCurrentTechnicianId(principal);
 
         return ResponseEntity.ok(
                 technicianService.getTechnicianSchedule(
-                        technician.getTechnicianId(),
+                        technicianId,
                         start,
                         end
                 )
         );
     }
 
-    private Technician getCurrentTechnician(UserDetails userDetails) {
-        return technicianRepository.findByUser_EmailAndUser_EnabledTrue(userDetails.getUsername())
-                .orElseThrow(() ->
-                        new ResourceNotFoundException(
-                                "Cannot find Technician for " + userDetails.getUsername()
-                        )
-                );
+    /**
+     * API: Live schedule (Server-Sent Events)
+     * A "snapshot" event with the calendar of the window, then a "delta" event per changed
+     * appointment or absence. Window defaults to today plus 14 days.
+     */
+    @GetMapping(path = "/schedule/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMySchedule(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
+    ) {
+        Integer technicianId = getCurrentTechnicianId(principal);
+
+        LocalDateTime from = start != null ? start : LocalDate.now().atStartOfDay();
+        LocalDateTime to = end != null ? end : from.plusDays(14);
+        return scheduleStreamHub.open(technicianId, from, to);
+    }
+
+    private Integer getCurrentTechnicianId(AuthenticatedUser principal) {
+        if (principal.getTechnicianId() == null) {
+            throw new ResourceNotFoundException("Cannot find Technician for " + principal.getUsername());
+        }
+        return principal.getTechnicianId();
     }
 
     private AbsenceRequestResponse mapToResponse(AbsenceRequest entity) {
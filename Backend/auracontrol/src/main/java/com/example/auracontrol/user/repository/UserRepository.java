@@ -1,6 +1,7 @@
 package com.example.auracontrol.user.repository;
 
 import com.example.auracontrol.admin.dto.CustomerListResponse;
+import com.example.auracontrol.shared.security.AccountStatus;
 import com.example.auracontrol.user.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -18,6 +19,14 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     @Query("SELECT u FROM User u WHERE u.email = :email")
     Optional<User> findByEmail(@Param("email") String email);
 
+    @Query("SELECT new com.example.auracontrol.shared.security.AccountStatus(" +
+            "u.userId, u.enabled, c.customerId, t.technicianId) " +
+            "FROM User u " +
+            "LEFT JOIN Customer c ON c.user.userId = u.userId " +
+            "LEFT JOIN Technician t ON t.user.userId = u.userId " +
+            "WHERE u.userId = :id")
+    Optional<AccountStatus> findAccountStatus(@Param("id") Integer id);
+
     @Query("SELECT CASE WHEN COUNT(u) > 0 THEN TRUE ELSE FALSE END FROM User u WHERE u.email = :email")
     boolean existsByEmail(@Param("email") String email);
 
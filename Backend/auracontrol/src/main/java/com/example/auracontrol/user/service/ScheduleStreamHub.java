@@ -0,0 +1,260 @@
+package com.example.auracontrol.user.service;
+
+import com.example.auracontrol.exception.TooManyRequestsException;
+import com.example.auracontrol.shared.cache.CacheTopics;
+import com.example.auracontrol.shared.cache.InvalidationBroadcaster;
+import com.example.auracontrol.shared.cache.InvalidationBus;
+import com.example.auracontrol.user.dto.CalendarEventDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Fans technician calendar changes out to open Server-Sent Event streams.
+ *
+ * <p>A stream is an async servlet response ({@link SseEmitter}): while idle it holds no request
+ * thread, only its socket and a small subscriber object. Changes arrive through the
+ * {@link InvalidationBus} (appointments and absence requests, local or from another node);
+ * each one is loaded once and written to the technician's streams on virtual threads.
+ * Changes to the same row are loaded and sent one after another, in the order they arrived, so
+ * a client never sees an older state after a newer one. At most
+ * {@code app.schedule-stream.max-concurrent-loads} snapshot or change queries run at a time, so a
+ * resync of every stream does not hit the connection pool all at once.</p>
+ *
+ * <p>A new stream first receives a "snapshot" event with the calendar of its window, then
+ * "delta" events carrying one {@link CalendarEventDto} each. Deltas that arrive while the
+ * snapshot is being loaded are held back and sent right after it. Only deltas for entries inside
+ * the window are sent, plus the one that moves an entry the client has out of it.</p>
+ */
+@Component
+public class ScheduleStreamHub {
+    private static final Logger log = LoggerFactory.getLogger(ScheduleStreamHub.class);
+
+    private final TechnicianService technicianService;
+    private final Duration timeout;
+    private final int maxStreamsPerTechnician;
+    private final Map<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore loadPermits;
+    // Last queued load per changed row (topic:key), so changes to one row go out in order
+    private final Map<String, CompletableFuture<Void>> changeChains = new ConcurrentHashMap<>();
+    private final Counter deltasSent;
+
+    public ScheduleStreamHub(TechnicianService technicianService,
+                             InvalidationBus invalidationBus,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.schedule-stream.timeout:30m}") Duration timeout,
+                             @Value("${app.schedule-stream.max-streams-per-technician:5}") int maxStreamsPerTechnician,
+                             @Value("${app.schedule-stream.max-concurrent-loads:4}") int maxConcurrentLoads) {
+        this.technicianService = technicianService;
+        this.timeout = timeout;
+        this.maxStreamsPerTechnician = maxStreamsPerTechnician;
+        this.loadPermits = new Semaphore(Math.max(1, maxConcurrentLoads), true);
+
+        Gauge.builder("schedule.stream.open", subscribers, s -> s.values().stream().mapToInt(Set::size).sum())
+                .description("Open technician schedule streams on this node")
+                .register(meterRegistry);
+        this.deltasSent = Counter.builder("schedule.stream.deltas")
+                .description("Calendar deltas written to schedule streams")
+                .register(meterRegistry);
+
+        invalidationBus.subscribe(CacheTopics.APPOINTMENT,
+                key -> onChange(CacheTopics.APPOINTMENT, key, technicianService::findAppointmentChange));
+        invalidationBus.subscribe(CacheTopics.ABSENCE,
+                key -> onChange(CacheTopics.ABSENCE, key, technicianService::findAbsenceChange));
+    }
+
+    public SseEmitter open(Integer technicianId, LocalDateTime from, LocalDateTime to) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(technicianId, from, to, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        subscribers.compute(technicianId, (id, streams) -> {
+            Set<Subscriber> target = streams != null ? streams : ConcurrentHashMap.newKeySet();
+            if (target.size() >= maxStreamsPerTechnician) {
+                throw new TooManyRequestsException("Too many open schedule streams, close one and retry.", 5);
+            }
+            target.add(subscriber);
+            return target;
+        });
+
+        // Loaded off the request thread so no JPA session or connection stays bound to the open response
+        executor.execute(() -> sendSnapshot(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Comment lines keep idle streams alive through proxies and reveal closed connections.
+     */
+    @Scheduled(fixedDelayString = "${app.schedule-stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Set<Subscriber> streams : subscribers.values()) {
+            for (Subscriber subscriber : streams) {
+                executor.execute(() -> subscriber.send(SseEmitter.event().comment("ping")));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(streams -> streams.forEach(s -> s.emitter.complete()));
+        subscribers.clear();
+        executor.shutdownNow();
+    }
+
+    private void onChange(String topic, String key, Function<Integer, Optional<TechnicianService.ScheduleChange>> loader) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (InvalidationBroadcaster.ALL_KEYS.equals(key)) {
+            // Changes may have been missed: every stream gets a fresh snapshot
+            subscribers.values().forEach(streams -> streams.forEach(s -> executor.execute(() -> sendSnapshot(s))));
+            return;
+        }
+        inOrder(topic + ":" + key, () -> {
+            try {
+                limited(() -> loader.apply(Integer.valueOf(key))).ifPresent(change -> {
+                    for (Subscriber subscriber : subscribers.getOrDefault(change.technicianId(), Set.of())) {
+                        subscriber.delta(change.event());
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.warn("Could not load schedule change {}:{}: {}", topic, key, e.getMessage());
+            }
+        });
+    }
+
+    // Runs the task after the previous one queued under the same key has finished
+    private void inOrder(String key, Runnable task) {
+        CompletableFuture<Void> queued = changeChains.compute(key, (k, previous) ->
+                (previous != null ? previous : CompletableFuture.<Void>completedFuture(null)).thenRunAsync(task, executor));
+        queued.whenComplete((result, e) -> changeChains.remove(key, queued));
+    }
+
+    private <T> T limited(Supplier<T> load) {
+        try {
+            loadPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to load a schedule", e);
+        }
+        try {
+            return load.get();
+        } finally {
+            loadPermits.release();
+        }
+    }
+
+    private void sendSnapshot(Subscriber subscriber) {
+        try {
+            subscriber.snapshot(limited(() ->
+                    technicianService.getTechnicianSchedule(subscriber.technicianId, subscriber.from, subscriber.to)));
+        } catch (RuntimeException e) {
+            log.warn("Could not load schedule snapshot for technician {}: {}", subscriber.technicianId, e.getMessage());
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.technicianId, (id, streams) -> {
+            streams.remove(subscriber);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    private final class Subscriber {
+        private final Integer technicianId;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        // Deltas received before the first snapshot went out; null afterwards
+        private List<CalendarEventDto> pending = new ArrayList<>();
+        // Ids of the entries the client currently has in its window
+        private final Set<String> visible = new HashSet<>();
+
+        private Subscriber(Integer technicianId, LocalDateTime from, LocalDateTime to, SseEmitter emitter) {
+            this.technicianId = technicianId;
+            this.from = from;
+            this.to = to;
+            this.emitter = emitter;
+        }
+
+        void snapshot(List<CalendarEventDto> events) {
+            lock.lock();
+            try {
+                send(SseEmitter.event().name("snapshot").data(events));
+                visible.clear();
+                events.forEach(event -> visible.add(event.getId()));
+                if (pending != null) {
+                    pending.forEach(this::sendDelta);
+                    pending = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void delta(CalendarEventDto event) {
+            lock.lock();
+            try {
+                if (pending != null) {
+                    pending.add(event);
+                } else {
+                    sendDelta(event);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void sendDelta(CalendarEventDto event) {
+            boolean inWindow = !event.getEnd().isBefore(from) && !event.getStart().isAfter(to);
+            if (inWindow) {
+                visible.add(event.getId());
+            } else if (!visible.remove(event.getId())) {
+                // Outside the window and not on the client: nothing to update
+                return;
+            }
+            send(SseEmitter.event().name("delta").id(event.getId()).data(event));
+            deltasSent.increment();
+        }
+
+        void send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the stream already completed; the container completes the emitter
+                remove(this);
+            }
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -18,22 +19,20 @@ public class TechnicianService {
     private final AppointmentRepository appointmentRepository;
     private final AbsenceRequestRepository absenceRequestRepository;
 
+    /**
+     * A calendar entry together with the technician whose calendar it belongs to.
+     */
+    public record ScheduleChange(Integer technicianId, CalendarEventDto event) {
+    }
+
     public List<CalendarEventDto> getTechnicianSchedule(Integer technicianId, LocalDateTime fromDate, LocalDateTime toDate) {
         List<CalendarEventDto> events = new ArrayList<>();
 
 
-        List<Appointment> appointments = appointmentRepository.findByTechnicianIdAndDateRange(technicianId, fromDate, toDate);
+        List<Appointment> appointments = appointmentRepository.findScheduleByTechnicianIdAndDateRange(technicianId, fromDate, toDate);
 
         for (Appointment appt : appointments) {
-            events.add(CalendarEventDto.builder()
-                    .id("appt-" + appt.getAppointmentId())
-                    .title("Customer: " + appt.getCustomer().getUser().getName())
-                    .start(appt.getStartTime())
-                    .end(appt.getEndTime())
-                    .type("APPOINTMENT")
-                    .status(appt.getStatus())
-                    .description(appt.getService().getName())
-                    .build());
+            events.add(toEvent(appt));
         }
 
         List<AbsenceRequest> absences = absenceRequestRepository.findByTechnicianIdAndDateRange(technicianId, fromDate, toDate);
@@ -41,18 +40,50 @@ public class TechnicianService {
         for (AbsenceRequest abs : absences) {
 
             if (!abs.getStatus().equals("REJECTED")) {
-                events.add(CalendarEventDto.builder()
-                        .id("abs-" + abs.getRequestId())
-                        .title("Absence: " + abs.getReason())
-                        .start(abs.getStartDate())
-                        .end(abs.getEndDate())
-                        .type("ABSENCE")
-                        .status(abs.getStatus())
-                        .description(abs.getReason())
-                        .build());
+                events.add(toEvent(abs));
             }
         }
 
         return events;
     }
+
+    /**
+     * Current calendar entry of an appointment, including cancelled ones so clients can drop them.
+     */
+    public Optional<ScheduleChange> findAppointmentChange(Integer appointmentId) {
+        return appointmentRepository.findScheduleEntryById(appointmentId)
+                .map(appt -> new ScheduleChange(appt.getTechnician().getTechnicianId(), toEvent(appt)));
+    }
+
+    /**
+     * Current calendar entry of an absence request, including rejected ones so clients can drop them.
+     */
+    public Optional<ScheduleChange> findAbsenceChange(Integer requestId) {
+        return absenceRequestRepository.findWithTechnicianById(requestId)
+                .map(abs -> new ScheduleChange(abs.getTechnician().getTechnicianId(), toEvent(abs)));
+    }
+
+    private static CalendarEventDto toEvent(Appointment appt) {
+        return CalendarEventDto.builder()
+                .id("appt-" + appt.getAppointmentId())
+                .title("Customer: " + appt.getCustomer().getUser().getName())
+                .start(appt.getStartTime())
+                .end(appt.getEndTime())
+                .type("APPOINTMENT")
+                .status(appt.getStatus())
+                .description(appt.getService().getName())
+                .build();
+    }
+
+    private static CalendarEventDto toEvent(AbsenceRequest abs) {
+        return CalendarEventDto.builder()
+                .id("abs-" + abs.getRequestId())
+                .title("Absence: " + abs.getReason())
+                .start(abs.getStartDate())
+                .end(abs.getEndDate())
+                .type("ABSENCE")
+                .status(abs.getStatus())
+                .description(abs.getReason())
+                .build();
+    }
 }
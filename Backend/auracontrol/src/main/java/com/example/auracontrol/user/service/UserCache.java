@@ -0,0 +1,121 @@
+package com.example.auracontrol.user.service;
+
+import com.example.auracontrol.shared.cache.CacheTopics;
+import com.example.auracontrol.shared.cache.InvalidationBroadcaster;
+import com.example.auracontrol.shared.security.AccountStatusCache;
+import com.example.auracontrol.user.entity.User;
+import com.example.auracontrol.user.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Size-bounded, TTL cache of users by email for read-only identity lookups (profile, current user).
+ *
+ * <p>Not for authentication: login and UserDetailsService read the password hash and the enabled
+ * flag from the database, so a password change or a disabled account takes effect on every node
+ * immediately, whether or not the invalidation arrives.</p>
+ *
+ * <p>Entries are detached scalar copies without the customer/technician associations,
+ * and every lookup returns a fresh copy, so callers must not save what they get here.
+ * Flows that modify the user keep loading it from {@link UserRepository} and call {@link #evict}.</p>
+ */
+@Component
+public class UserCache {
+    static final String TOPIC = CacheTopics.USER;
+
+    private final UserRepository userRepository;
+    private final AccountStatusCache accountStatusCache;
+    private final InvalidationBroadcaster broadcaster;
+    private final Cache<String, User> byEmail;
+
+    public UserCache(UserRepository userRepository,
+                     AccountStatusCache accountStatusCache,
+                     InvalidationBroadcaster broadcaster,
+                     @Value("${app.cache.users.ttl:10m}") Duration ttl,
+                     @Value("${app.cache.users.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.accountStatusCache = accountStatusCache;
+        this.broadcaster = broadcaster;
+        this.byEmail = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+        broadcaster.subscribe(TOPIC, this::onRemoteInvalidation);
+    }
+
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        User cached = byEmail.getIfPresent(email);
+        if (cached == null) {
+            // Misses are not cached, so a freshly registered account is visible immediately
+            Optional<User> loaded = userRepository.findByEmail(email);
+            if (loaded.isEmpty()) {
+                return Optional.empty();
+            }
+            cached = copyOf(loaded.get());
+            byEmail.put(email, cached);
+        }
+        return Optional.of(copyOf(cached));
+    }
+
+    /**
+     * Evicts the user on this node right away and again after commit (so a concurrent read cannot
+     * re-cache the old row), and tells the other nodes once the transaction commits.
+     */
+    public void evict(Integer userId, String email) {
+        evictLocally(userId, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocally(userId, email);
+                }
+            });
+        }
+        broadcaster.broadcast(TOPIC, (userId != null ? userId : "") + ":" + (email != null ? email : ""));
+    }
+
+    public void evict(User user) {
+        evict(user.getUserId(), user.getEmail());
+    }
+
+    private void evictLocally(Integer userId, String email) {
+        if (email != null) {
+            byEmail.invalidate(email);
+        }
+        accountStatusCache.invalidate(userId);
+    }
+
+    private void onRemoteInvalidation(String key) {
+        if (InvalidationBroadcaster.ALL_KEYS.equals(key)) {
+            byEmail.invalidateAll();
+            accountStatusCache.invalidateAll();
+            return;
+        }
+        int separator = key.indexOf(':');
+        String id = key.substring(0, separator);
+        String email = key.substring(separator + 1);
+        evictLocally(id.isEmpty() ? null : Integer.valueOf(id), email.isEmpty() ? null : email);
+    }
+
+    private static User copyOf(User user) {
+        return User.builder()
+                .userId(user.getUserId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .role(user.getRole())
+                .enabled(user.isEnabled())
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
+}
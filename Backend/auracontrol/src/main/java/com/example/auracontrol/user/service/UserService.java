@@ -20,12 +20,13 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
 
     public UserProfileResponse getCurrentUserProfile() {
 
         String currentUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
 
-        User user = userRepository.findByEmail(currentUserEmail)
+        User user = userCache.findByEmail(currentUserEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("Cannot find User"));
 
         return UserProfileResponse.builder()
@@ -40,7 +41,7 @@ public class UserService {
         String currentUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
 
 
-        User currentUser = userRepository.findByEmail(currentUserEmail)
+        User currentUser = userCache.findByEmail(currentUserEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
 
@@ -48,6 +49,7 @@ public class UserService {
 
 
         userRepository.updateProfile(Math.toIntExact(currentUser.getUserId()), newName);
+        userCache.evict(currentUser);
 
 
         UserProfileResponse updatedUserDto = UserProfileResponse.builder()
@@ -64,7 +66,7 @@ public class UserService {
 
         String currentUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
 
-        User user = userRepository.findByEmail(currentUserEmail)
+        User user = userCache.findByEmail(currentUserEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
 
@@ -76,5 +78,6 @@ public class UserService {
 
 
         userRepository.updatePassword(Math.toIntExact(user.getUserId()), encodedNewPassword);
+        userCache.evict(user);
     }
 }
@@ -0,0 +1,19 @@
+-- Table: Idempotency-Key of booking writes and the response they produced
+-- One row per (user, key). status_code stays NULL while the first request is running; expires_at is
+-- then a short lease, so a key whose request died with its node can be claimed again. A request that
+-- completed but whose response could not be stored keeps status_code NULL with outcome_unknown set,
+-- for the full retention, so a retry is refused instead of running the write a second time.
+CREATE TABLE idempotency_key (
+                                 user_id INT NOT NULL,
+                                 idem_key VARCHAR(255) NOT NULL,
+                                 request_hash BYTEA NOT NULL, -- SHA-256 of operation and request body
+                                 status_code SMALLINT,
+                                 response_body TEXT,
+                                 outcome_unknown BOOLEAN NOT NULL DEFAULT FALSE,
+                                 created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                 expires_at TIMESTAMP NOT NULL,
+                                 PRIMARY KEY (user_id, idem_key),
+                                 CONSTRAINT fk_idempotency_user FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_idempotency_key_expires ON idempotency_key(expires_at);
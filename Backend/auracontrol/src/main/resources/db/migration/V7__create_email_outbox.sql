@@ -0,0 +1,21 @@
+-- Table: Email outbox
+-- Rows are written in the same transaction as the business change (registration, password reset)
+-- and delivered later by EmailOutboxDispatcher, which leases due rows (SENDING until locked_until),
+-- sends them outside any transaction and records the outcome afterwards.
+CREATE TABLE email_outbox (
+                              outbox_id SERIAL PRIMARY KEY,
+                              recipient VARCHAR(255) NOT NULL,
+                              template VARCHAR(100) NOT NULL,
+                              payload TEXT NOT NULL, -- JSON object with the template variables
+                              status VARCHAR(20) NOT NULL DEFAULT 'PENDING', -- 'PENDING', 'SENDING', 'SENT', 'DEAD'
+                              attempts INT NOT NULL DEFAULT 0,
+                              next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                              locked_until TIMESTAMP, -- lease of a SENDING row; once past, the row is claimed again
+                              last_error TEXT,
+                              created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                              sent_at TIMESTAMP
+);
+
+-- Only pending rows and leases left behind by a dead node are ever polled
+CREATE INDEX idx_email_outbox_due ON email_outbox(next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX idx_email_outbox_leased ON email_outbox(locked_until) WHERE status = 'SENDING';
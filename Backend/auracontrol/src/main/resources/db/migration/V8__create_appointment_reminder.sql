@@ -0,0 +1,10 @@
+-- Table: Appointment reminders already handed to the email outbox
+-- One row per (appointment, kind); the primary key makes enqueueing idempotent across nodes.
+CREATE TABLE appointment_reminder (
+                                      appointment_id INT NOT NULL,
+                                      kind VARCHAR(10) NOT NULL, -- 'H24', 'H2'
+                                      due_at TIMESTAMP NOT NULL,
+                                      sent_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                      PRIMARY KEY (appointment_id, kind),
+                                      CONSTRAINT fk_reminder_appointment FOREIGN KEY (appointment_id) REFERENCES appointment(appointment_id) ON DELETE CASCADE
+);
@@ -0,0 +1,8 @@
+-- Table: Per-topic counter of cache invalidations
+-- Bumped with every NOTIFY on the invalidation channel; nodes compare it with the last version
+-- they received to detect notifications they missed while disconnected.
+CREATE TABLE cache_version (
+                               topic VARCHAR(64) PRIMARY KEY,
+                               version BIGINT NOT NULL DEFAULT 0,
+                               updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -7,6 +7,7 @@ import com.example.auracontrol.shared.security.JwtService;
 import com.example.auracontrol.user.Role;
 import com.example.auracontrol.user.entity.User;
 import com.example.auracontrol.user.repository.UserRepository;
+import com.example.auracontrol.user.service.UserCache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,6 +31,8 @@ public class AuthTest {
     private JwtService jwtService;
     @Mock
     private AuthenticationManager authenticationManager;
+    @Mock
+    private UserCache userCache;
     @InjectMocks
     private AuthService authService;
 
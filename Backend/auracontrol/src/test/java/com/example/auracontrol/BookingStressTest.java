@@ -0,0 +1,310 @@
+package com.example.auracontrol;
+
+import com.example.auracontrol.booking.dto.BookingRequest;
+import com.example.auracontrol.booking.entity.Appointment;
+import com.example.auracontrol.booking.service.AppointmentService;
+import com.example.auracontrol.booking.service.BookingRejectionReason;
+import com.example.auracontrol.exception.DuplicateResourceException;
+import com.example.auracontrol.exception.InvalidRequestException;
+import com.example.auracontrol.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires a few thousand concurrent create / reschedule / cancel calls on virtual threads at a handful
+ * of slots, then audits the appointment tables for double bookings.
+ *
+ * Runs against a throw-away Postgres container with the real Flyway migrations (V6 seeds the
+ * sample data, so the first start takes a while), or against an existing database when
+ * {@code -Dstress.datasource.url} (plus {@code .username} / {@code .password}) is given.
+ * Excluded from {@code mvn test}; run it with {@code mvn test -Pstress}.
+ *
+ * Tunables: {@code stress.operations} (3000), {@code stress.concurrency} (200 calls in flight),
+ * {@code stress.customers} (200), {@code stress.slots} (8 quarter-hours on one day). The pool
+ * size is the usual {@code spring.datasource.hikari.maximum-pool-size}.
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+        "app.jwt.secret=c3RyZXNzLXRlc3Qtc2VjcmV0LXN0cmVzcy10ZXN0LXNlY3JldC0wMTIzNDU2Nzg5",
+        "app.jwt.expiration=3600000",
+        "spring.mail.host=localhost",
+        "spring.mail.port=2525",
+        "spring.mail.username=stress",
+        "spring.mail.password=stress",
+        "app.reminders.enabled=false",
+        "app.sql-trace.sample-rate=0"
+})
+public class BookingStressTest {
+    private static final int OPERATIONS = Integer.getInteger("stress.operations", 3000);
+    private static final int CONCURRENCY = Integer.getInteger("stress.concurrency", 200);
+    private static final int CUSTOMERS = Integer.getInteger("stress.customers", 200);
+    private static final int SLOTS = Integer.getInteger("stress.slots", 8);
+
+    private static final String CREATE = "create";
+    private static final String RESCHEDULE = "reschedule";
+    private static final String CANCEL = "cancel";
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        String url = System.getProperty("stress.datasource.url");
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.username", () -> System.getProperty("stress.datasource.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("stress.datasource.password", "postgres"));
+            return;
+        }
+        if (postgres == null) {
+            postgres = new PostgreSQLContainer<>("postgres:17-alpine").withDatabaseName("spa");
+            postgres.start();
+        }
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    private record Booking(int appointmentId, int customerId) {
+    }
+
+    private record Sample(String operation, Outcome outcome, long nanos) {
+    }
+
+    private enum Outcome {
+        OK, REJECTED, DEADLOCK, SERIALIZATION_FAILURE, LOCK_TIMEOUT, ERROR
+    }
+
+    @Test
+    @DisplayName("Concurrent bookings on contended slots never double-book a technician or a resource")
+    void concurrentBookingsKeepInvariants() throws InterruptedException {
+        int firstAppointmentId = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(appointment_id), 0) + 1 FROM appointment", Integer.class);
+        List<Integer> customers = createCustomers();
+        List<Integer> services = contendedServices();
+        assertFalse(services.isEmpty(), "No active service with qualified technicians to book");
+
+        // far enough ahead to be clear of the seeded appointments and of the 30 minute rules
+        LocalDate day = LocalDate.now().plusYears(2);
+        List<LocalDateTime> slots = new ArrayList<>();
+        for (int i = 0; i < SLOTS; i++) {
+            slots.add(day.atTime(10, 0).plusMinutes(15L * i));
+        }
+
+        List<Booking> booked = Collections.synchronizedList(new ArrayList<>());
+        Queue<Sample> samples = new ConcurrentLinkedQueue<>();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < OPERATIONS; i++) {
+                inFlight.acquire();
+                executor.submit(() -> {
+                    try {
+                        samples.add(runOne(customers, services, slots, booked, unexpected));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        long technicianOverlaps = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*)
+                FROM appointment a
+                JOIN appointment b ON b.technician_id = a.technician_id
+                                  AND b.appointment_id > a.appointment_id
+                                  AND b.start_time < a.end_time
+                                  AND a.start_time < b.end_time
+                WHERE a.status <> 'CANCELLED' AND b.status <> 'CANCELLED'
+                  AND b.appointment_id >= ?
+                """, Long.class, firstAppointmentId);
+        long resourceOverlaps = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*)
+                FROM appointment_resource ra
+                JOIN appointment a ON a.appointment_id = ra.appointment_id
+                JOIN appointment_resource rb ON rb.resource_id = ra.resource_id
+                                            AND rb.appointment_id > ra.appointment_id
+                JOIN appointment b ON b.appointment_id = rb.appointment_id
+                WHERE a.status <> 'CANCELLED' AND b.status <> 'CANCELLED'
+                  AND b.start_time < a.end_time
+                  AND a.start_time < b.end_time
+                  AND b.appointment_id >= ?
+                """, Long.class, firstAppointmentId);
+        // a live appointment holds one resource per requirement row of its service (the triggers ignore quantity)
+        long missingResources = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*)
+                FROM (SELECT a.appointment_id, req.resource_type, COUNT(*) AS needed
+                      FROM appointment a
+                      JOIN service_resource_requirement req ON req.service_id = a.service_id
+                      WHERE a.status <> 'CANCELLED' AND a.appointment_id >= ?
+                      GROUP BY a.appointment_id, req.resource_type) n
+                WHERE (SELECT COUNT(*)
+                       FROM appointment_resource ar
+                       JOIN resources r ON r.resource_id = ar.resource_id
+                       WHERE ar.appointment_id = n.appointment_id AND r.type = n.resource_type) < n.needed
+                """, Long.class, firstAppointmentId);
+
+        report(new ArrayList<>(samples), elapsed, technicianOverlaps, resourceOverlaps, missingResources, unexpected);
+
+        assertEquals(OPERATIONS, samples.size());
+        assertTrue(samples.stream().anyMatch(s -> s.operation().equals(CREATE) && s.outcome() == Outcome.OK),
+                "No booking succeeded");
+        assertEquals(0, technicianOverlaps, "Technician double-booked");
+        assertEquals(0, resourceOverlaps, "Resource double-booked");
+        assertEquals(0, missingResources, "Appointment without its required resources");
+    }
+
+    private Sample runOne(List<Integer> customers, List<Integer> services, List<LocalDateTime> slots,
+                          List<Booking> booked, Queue<Throwable> unexpected) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        Booking target = null;
+        if (roll >= 60) {
+            synchronized (booked) {
+                if (!booked.isEmpty()) {
+                    target = booked.get(random.nextInt(booked.size()));
+                }
+            }
+        }
+        String operation = target == null ? CREATE : roll < 85 ? RESCHEDULE : CANCEL;
+
+        long started = System.nanoTime();
+        Outcome outcome;
+        try {
+            switch (operation) {
+                case CREATE -> {
+                    BookingRequest request = new BookingRequest();
+                    request.setServiceId(services.get(random.nextInt(services.size())));
+                    request.setStartTime(slots.get(random.nextInt(slots.size())));
+                    int customerId = customers.get(random.nextInt(customers.size()));
+                    Appointment appointment = appointmentService.createAppointment(request, customerId);
+                    booked.add(new Booking(appointment.getAppointmentId(), customerId));
+                }
+                case RESCHEDULE -> appointmentService.rescheduleAppointment(
+                        target.appointmentId(), slots.get(random.nextInt(slots.size())), target.customerId());
+                default -> appointmentService.cancelAppointment(target.appointmentId(), target.customerId());
+            }
+            outcome = Outcome.OK;
+        } catch (RuntimeException e) {
+            outcome = classify(e);
+            if (outcome == Outcome.ERROR) {
+                unexpected.add(e);
+            }
+        }
+        return new Sample(operation, outcome, System.nanoTime() - started);
+    }
+
+    private static Outcome classify(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && sql.getSQLState() != null) {
+                switch (sql.getSQLState()) {
+                    case "40P01":
+                        return Outcome.DEADLOCK;
+                    case "40001":
+                        return Outcome.SERIALIZATION_FAILURE;
+                    case "55P03":
+                        return Outcome.LOCK_TIMEOUT;
+                    default:
+                        break;
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        // business rules and trigger rejections are expected on contended slots
+        if (error instanceof ResourceNotFoundException
+                || error instanceof DuplicateResourceException
+                || error instanceof InvalidRequestException
+                || BookingRejectionReason.fromTriggerError(error).isPresent()) {
+            return Outcome.REJECTED;
+        }
+        return Outcome.ERROR;
+    }
+
+    private List<Integer> createCustomers() {
+        String tag = Long.toString(System.currentTimeMillis(), 36);
+        return jdbcTemplate.queryForList("""
+                WITH u AS (
+                    INSERT INTO users (name, email, password, role, is_enabled)
+                    SELECT 'Stress ' || g, 'stress-' || ? || '-' || g || '@aura.test', '{noop}stress', 'CUSTOMER', TRUE
+                    FROM generate_series(1, ?) g
+                    RETURNING user_id
+                )
+                INSERT INTO customer (user_id) SELECT user_id FROM u RETURNING customer_id
+                """, Integer.class, tag, CUSTOMERS);
+    }
+
+    // the services most technicians can perform: the most bookings competing for the same people
+    private List<Integer> contendedServices() {
+        return jdbcTemplate.queryForList("""
+                SELECT ts.service_id
+                FROM technician_services ts
+                JOIN services s ON s.service_id = ts.service_id
+                JOIN technician t ON t.technician_id = ts.technician_id
+                JOIN users u ON u.user_id = t.user_id
+                WHERE s.is_active AND u.is_enabled
+                GROUP BY ts.service_id
+                ORDER BY COUNT(*) DESC, ts.service_id
+                LIMIT 3
+                """, Integer.class);
+    }
+
+    private static void report(List<Sample> samples, Duration elapsed, long technicianOverlaps,
+                               long resourceOverlaps, long missingResources, Queue<Throwable> unexpected) {
+        double seconds = Math.max(elapsed.toNanos(), 1) / 1e9;
+        System.out.printf("%nBooking stress: %d calls, concurrency %d, %d slots, %.1f s, %.0f calls/s%n",
+                samples.size(), CONCURRENCY, SLOTS, seconds, samples.size() / seconds);
+        System.out.printf("%-11s %7s %7s %9s %8s %10s %8s %6s %9s %9s%n", "operation", "calls", "ok",
+                "rejected", "deadlock", "serializ.", "lock_to", "error", "p50 ms", "p99 ms");
+        for (String operation : List.of(CREATE, RESCHEDULE, CANCEL)) {
+            List<Sample> rows = samples.stream().filter(s -> s.operation().equals(operation)).toList();
+            Map<Outcome, Long> counts = new EnumMap<>(Outcome.class);
+            rows.forEach(s -> counts.merge(s.outcome(), 1L, Long::sum));
+            long[] nanos = rows.stream().mapToLong(Sample::nanos).sorted().toArray();
+            System.out.printf("%-11s %7d %7d %9d %8d %10d %8d %6d %9.1f %9.1f%n", operation, rows.size(),
+                    counts.getOrDefault(Outcome.OK, 0L),
+                    counts.getOrDefault(Outcome.REJECTED, 0L),
+                    counts.getOrDefault(Outcome.DEADLOCK, 0L),
+                    counts.getOrDefault(Outcome.SERIALIZATION_FAILURE, 0L),
+                    counts.getOrDefault(Outcome.LOCK_TIMEOUT, 0L),
+                    counts.getOrDefault(Outcome.ERROR, 0L),
+                    percentile(nanos, 0.50) / 1e6, percentile(nanos, 0.99) / 1e6);
+        }
+        System.out.printf("Audit: %d technician overlap(s), %d resource overlap(s), %d appointment(s) missing resources%n",
+                technicianOverlaps, resourceOverlaps, missingResources);
+        unexpected.stream().limit(5).forEach(e -> System.out.println("Unexpected: " + e));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.clamp(index, 0, sorted.length - 1)];
+    }
+}
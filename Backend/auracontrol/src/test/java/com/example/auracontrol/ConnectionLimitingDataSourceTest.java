@@ -0,0 +1,103 @@
+package com.example.auracontrol;
+
+import com.example.auracontrol.shared.datasource.ConnectionLimiterPostProcessor;
+import com.example.auracontrol.shared.datasource.ConnectionLimitingDataSource;
+import com.example.auracontrol.shared.datasource.RoutingPools;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConnectionLimitingDataSourceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DataSource pool = mock(DataSource.class);
+    private final Connection pooled = mock(Connection.class);
+    private ConnectionLimitingDataSource limiter;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(pool.getConnection()).thenReturn(pooled);
+        limiter = new ConnectionLimitingDataSource(pool, "primary", 1, Duration.ofMillis(50), registry);
+    }
+
+    @Test
+    @DisplayName("Closing a connection returns it to the pool and releases its permit once")
+    void closeReleasesPermit() throws SQLException {
+        Connection connection = limiter.getConnection();
+        assertEquals(1.0, registry.get("db.limiter.active").tag("pool", "primary").gauge().value());
+
+        connection.close();
+        connection.close();
+
+        verify(pooled, times(2)).close();
+        assertEquals(0.0, registry.get("db.limiter.active").tag("pool", "primary").gauge().value());
+        try (Connection next = limiter.getConnection()) {
+            assertNotNull(next);
+        }
+    }
+
+    @Test
+    @DisplayName("A borrower that waits longer than max-wait gets a transient exception")
+    void waitTimesOut() throws SQLException {
+        try (Connection held = limiter.getConnection()) {
+            assertThrows(SQLTransientConnectionException.class, limiter::getConnection);
+        }
+        verify(pool, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("The permit is released when the pool fails to hand out a connection")
+    void failedBorrowReleasesPermit() throws SQLException {
+        when(pool.getConnection())
+                .thenThrow(new SQLTransientConnectionException("pool exhausted"))
+                .thenReturn(pooled);
+
+        assertThrows(SQLTransientConnectionException.class, limiter::getConnection);
+
+        try (Connection connection = limiter.getConnection()) {
+            assertNotNull(connection);
+        }
+    }
+
+    @Test
+    @DisplayName("With replica routing each pool gets its own limiter, sized from that pool")
+    void routingPoolsLimitedSeparately() {
+        HikariDataSource primary = mock(HikariDataSource.class);
+        HikariDataSource replica = mock(HikariDataSource.class);
+        when(primary.getMaximumPoolSize()).thenReturn(20);
+        when(primary.getPoolName()).thenReturn("primary");
+        when(replica.getMaximumPoolSize()).thenReturn(8);
+        when(replica.getPoolName()).thenReturn("replica");
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.datasource.replica.enabled", "true");
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("meterRegistry", new SimpleMeterRegistry());
+        ConnectionLimiterPostProcessor processor =
+                new ConnectionLimiterPostProcessor(environment, beans.getBeanProvider(MeterRegistry.class));
+
+        RoutingPools pools = (RoutingPools) processor.postProcessAfterInitialization(
+                new RoutingPools(primary, replica), "routingPools");
+
+        assertSame(primary, pools.primary());
+        assertEquals(20, assertInstanceOf(ConnectionLimitingDataSource.class, pools.primaryTarget()).getMaxConnections());
+        assertEquals(8, assertInstanceOf(ConnectionLimitingDataSource.class, pools.replicaTarget()).getMaxConnections());
+
+        DataSource routed = mock(DataSource.class);
+        assertSame(routed, processor.postProcessAfterInitialization(routed, "dataSource"));
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.auracontrol;
+
+import com.example.auracontrol.shared.email.EmailComposer;
+import com.example.auracontrol.shared.email.EmailOutboxDispatcher;
+import com.example.auracontrol.shared.email.EmailOutboxMessage;
+import com.example.auracontrol.shared.email.EmailOutboxRepository;
+import com.example.auracontrol.shared.email.EmailTemplateRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class EmailOutboxDispatcherTest {
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailOutboxDispatcher dispatcherFor(int smtpPort, int maxAttempts) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpPort);
+
+        return new EmailOutboxDispatcher(
+                mock(EmailOutboxRepository.class),
+                new EmailComposer(new EmailTemplateRegistry(
+                        new DefaultResourceLoader(), new SimpleMeterRegistry(), "classpath:templates/email/", false)),
+                mailSender,
+                new ObjectMapper(),
+                null,
+                new SimpleMeterRegistry(),
+                "noreply@aura.test",
+                50,
+                maxAttempts,
+                Duration.ofSeconds(30),
+                Duration.ofHours(1),
+                Duration.ofMinutes(10)
+        );
+    }
+
+    private EmailOutboxMessage row(int id, String template, String payload) {
+        LocalDateTime now = LocalDateTime.now();
+        return EmailOutboxMessage.builder()
+                .outboxId(id)
+                .recipient("customer" + id + "@aura.test")
+                .template(template)
+                .payload(payload)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should deliver the whole batch over SMTP and mark rows as SENT")
+    void deliver_Success() throws Exception {
+        EmailOutboxDispatcher dispatcher = dispatcherFor(greenMail.getSmtp().getPort(), 3);
+        EmailOutboxMessage verify = row(1, EmailComposer.VERIFY_ACCOUNT,
+                "{\"name\":\"Lan\",\"verifyLink\":\"http://localhost/verify-account?token=abc\"}");
+        EmailOutboxMessage reset = row(2, EmailComposer.RESET_PASSWORD,
+                "{\"resetLink\":\"http://localhost/reset-password?token=xyz\"}");
+
+        dispatcher.deliver(List.of(verify, reset));
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+        assertEquals("🌿 Welcome to Aura Spa - Verify Your Account", received[0].getSubject());
+        assertTrue(GreenMailUtil.getBody(received[0]).contains("Lan"));
+        assertEquals(EmailOutboxMessage.STATUS_SENT, verify.getStatus());
+        assertEquals(EmailOutboxMessage.STATUS_SENT, reset.getStatus());
+        assertNotNull(verify.getSentAt());
+        assertEquals(1, verify.getAttempts());
+    }
+
+    @Test
+    @DisplayName("Should keep rows pending with backoff when the SMTP server is unreachable")
+    void deliver_ServerDown_SchedulesRetry() throws Exception {
+        EmailOutboxDispatcher dispatcher = dispatcherFor(unusedPort(), 3);
+        EmailOutboxMessage message = row(3, EmailComposer.RESET_PASSWORD,
+                "{\"resetLink\":\"http://localhost/reset-password?token=xyz\"}");
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher.deliver(List.of(message));
+
+        assertEquals(EmailOutboxMessage.STATUS_PENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertTrue(message.getNextAttemptAt().isAfter(before.plusSeconds(29)));
+        assertNotNull(message.getLastError());
+    }
+
+    @Test
+    @DisplayName("Should move a row to DEAD after the last allowed attempt")
+    void deliver_ServerDown_DeadLetterAfterMaxAttempts() throws Exception {
+        EmailOutboxDispatcher dispatcher = dispatcherFor(unusedPort(), 3);
+        EmailOutboxMessage message = row(4, EmailComposer.RESET_PASSWORD,
+                "{\"resetLink\":\"http://localhost/reset-password?token=xyz\"}");
+        message.setAttempts(2);
+
+        dispatcher.deliver(List.of(message));
+
+        assertEquals(EmailOutboxMessage.STATUS_DEAD, message.getStatus());
+        assertEquals(3, message.getAttempts());
+    }
+
+    @Test
+    @DisplayName("Should dead-letter a row whose template cannot be rendered without blocking the batch")
+    void deliver_UnknownTemplate() {
+        EmailOutboxDispatcher dispatcher = dispatcherFor(greenMail.getSmtp().getPort(), 3);
+        EmailOutboxMessage broken = row(5, "no-such-template", "{}");
+        EmailOutboxMessage ok = row(6, EmailComposer.RESET_PASSWORD,
+                "{\"resetLink\":\"http://localhost/reset-password?token=xyz\"}");
+
+        dispatcher.deliver(List.of(broken, ok));
+
+        assertEquals(EmailOutboxMessage.STATUS_DEAD, broken.getStatus());
+        assertEquals(EmailOutboxMessage.STATUS_SENT, ok.getStatus());
+        assertEquals(1, greenMail.getReceivedMessages().length);
+    }
+
+    private static int unusedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
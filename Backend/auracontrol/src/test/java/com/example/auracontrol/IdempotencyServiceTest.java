@@ -0,0 +1,193 @@
+package com.example.auracontrol;
+
+import com.example.auracontrol.exception.ConcurrencyConflictException;
+import com.example.auracontrol.exception.DuplicateResourceException;
+import com.example.auracontrol.exception.InvalidRequestException;
+import com.example.auracontrol.shared.idempotency.IdempotencyRepository;
+import com.example.auracontrol.shared.idempotency.IdempotencyService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class IdempotencyServiceTest {
+    private static final int USER_ID = 42;
+    private static final String KEY = "3f1c7a52-booking";
+    private static final Duration TTL = Duration.ofHours(24);
+
+    private final IdempotencyRepository repository = mock(IdempotencyRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final IdempotencyService service = new IdempotencyService(
+            repository, new ObjectMapper(), registry, TTL, Duration.ofMinutes(2));
+
+    private final AtomicInteger runs = new AtomicInteger();
+    // the hash the service computed for the request, as seen by claim()
+    private final AtomicReference<byte[]> claimedHash = new AtomicReference<>();
+
+    private ResponseEntity<?> booking() {
+        runs.incrementAndGet();
+        return ResponseEntity.ok(Map.of("appointmentId", 7));
+    }
+
+    private ResponseEntity<?> execute() {
+        return service.execute(KEY, USER_ID, "create", Map.of("serviceId", 1), this::booking);
+    }
+
+    private void claimReturns(boolean claimed) {
+        when(repository.claim(eq(USER_ID), eq(KEY), any(), any(), any())).thenAnswer(invocation -> {
+            claimedHash.set(invocation.getArgument(2));
+            return claimed;
+        });
+    }
+
+    private void stored(Integer statusCode, String body, boolean outcomeUnknown) {
+        when(repository.find(USER_ID, KEY)).thenAnswer(invocation -> Optional.of(
+                new IdempotencyRepository.StoredKey(claimedHash.get(), statusCode, body, outcomeUnknown)));
+    }
+
+    private double outcome(String outcome) {
+        return registry.get("idempotency.requests").tag("operation", "create").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    @DisplayName("The first request runs, stores its response and keeps the key for the TTL")
+    void firstRequestStoresResponse() {
+        claimReturns(true);
+        LocalDateTime before = LocalDateTime.now();
+
+        ResponseEntity<?> response = execute();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, runs.get());
+        verify(repository).complete(eq(USER_ID), eq(KEY), eq(200), eq("{\"appointmentId\":7}"),
+                argThat(expiresAt -> !expiresAt.isBefore(before.plus(TTL))));
+        verify(repository, never()).release(anyInt(), anyString());
+    }
+
+    @Test
+    @DisplayName("A retry with the same request replays the stored response without running again")
+    void replaysStoredResponse() {
+        claimReturns(false);
+        stored(200, "{\"appointmentId\":7}", false);
+
+        ResponseEntity<?> response = execute();
+
+        assertEquals(0, runs.get());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("true", response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(7, ((JsonNode) response.getBody()).get("appointmentId").asInt());
+        assertEquals(1.0, outcome("replayed"));
+    }
+
+    @Test
+    @DisplayName("A key reused for a different request is rejected with a 400")
+    void payloadMismatch() {
+        claimReturns(false);
+        when(repository.find(USER_ID, KEY)).thenReturn(Optional.of(
+                new IdempotencyRepository.StoredKey(new byte[32], 200, "{}", false)));
+
+        assertThrows(InvalidRequestException.class, this::execute);
+        assertEquals(0, runs.get());
+        assertEquals(1.0, outcome("mismatch"));
+    }
+
+    @Test
+    @DisplayName("A retry while the first request is still running gets a 409")
+    void inProgress() {
+        claimReturns(false);
+        stored(null, null, false);
+
+        assertThrows(DuplicateResourceException.class, this::execute);
+        assertEquals(0, runs.get());
+        assertEquals(1.0, outcome("in_progress"));
+    }
+
+    @Test
+    @DisplayName("A non-2xx result releases the key so a retry is a new attempt")
+    void releasesAfterFailureResponse() {
+        claimReturns(true);
+
+        ResponseEntity<?> response = service.execute(KEY, USER_ID, "create", Map.of("serviceId", 1),
+                () -> ResponseEntity.badRequest().body(Map.of("message", "slot taken")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(repository).release(USER_ID, KEY);
+        verify(repository, never()).complete(anyInt(), anyString(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("An exception from the action releases the key and propagates")
+    void releasesAfterException() {
+        claimReturns(true);
+
+        assertThrows(IllegalStateException.class, () -> service.execute(KEY, USER_ID, "create", List.of(1),
+                () -> {
+                    throw new IllegalStateException("boom");
+                }));
+        verify(repository).release(USER_ID, KEY);
+    }
+
+    @Test
+    @DisplayName("A completed request whose response cannot be stored is kept as outcome_unknown for the TTL")
+    void lostResponseKeptAsOutcomeUnknown() {
+        claimReturns(true);
+        doThrow(new DataAccessResourceFailureException("connection reset"))
+                .when(repository).complete(anyInt(), anyString(), anyInt(), any(), any());
+        LocalDateTime before = LocalDateTime.now();
+
+        ResponseEntity<?> response = execute();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(repository).markOutcomeUnknown(eq(USER_ID), eq(KEY),
+                argThat(expiresAt -> !expiresAt.isBefore(before.plus(TTL))));
+        verify(repository, never()).release(anyInt(), anyString());
+    }
+
+    @Test
+    @DisplayName("A retry of a key with an unknown outcome gets a 409 instead of running again")
+    void outcomeUnknownRefusesRetry() {
+        claimReturns(false);
+        stored(null, null, true);
+
+        assertThrows(DuplicateResourceException.class, this::execute);
+        assertEquals(0, runs.get());
+        assertEquals(1.0, outcome("outcome_unknown"));
+    }
+
+    @Test
+    @DisplayName("A key released between every claim and replay gives up after the retry cap with a 503")
+    void claimRetriesAreCapped() {
+        claimReturns(false);
+        when(repository.find(USER_ID, KEY)).thenReturn(Optional.empty());
+
+        assertThrows(ConcurrencyConflictException.class, this::execute);
+        verify(repository, times(3)).claim(eq(USER_ID), eq(KEY), any(), any(), any());
+        assertEquals(0, runs.get());
+        assertEquals(1.0, outcome("contended"));
+    }
+
+    @Test
+    @DisplayName("Without a key the action runs with no bookkeeping")
+    void noKey() {
+        service.execute(null, USER_ID, "create", Map.of(), this::booking);
+
+        assertEquals(1, runs.get());
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.auracontrol;
+
+import com.example.auracontrol.shared.ratelimit.Bandwidth;
+import com.example.auracontrol.shared.ratelimit.InMemoryTokenBucketRateLimiter;
+import com.example.auracontrol.shared.ratelimit.RateLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final RateLimiter limiter = new InMemoryTokenBucketRateLimiter(1_000, Duration.ofHours(1), clock::get);
+    private final Bandwidth fivePerMinute = new Bandwidth(5, 5, Duration.ofMinutes(1));
+
+    @Test
+    @DisplayName("Burst up to capacity is allowed, the next request is rejected with Retry-After")
+    void burstThenReject() {
+        for (int i = 4; i >= 0; i--) {
+            RateLimiter.Decision decision = limiter.tryConsume("k", fivePerMinute);
+            assertTrue(decision.allowed());
+            assertEquals(i, decision.remaining());
+        }
+
+        RateLimiter.Decision rejected = limiter.tryConsume("k", fivePerMinute);
+        assertFalse(rejected.allowed());
+        assertEquals(TimeUnit.SECONDS.toNanos(12), rejected.retryAfterNanos());
+    }
+
+    @Test
+    @DisplayName("Tokens refill with elapsed time and never exceed capacity")
+    void refill() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryConsume("k", fivePerMinute);
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(12));
+        assertTrue(limiter.tryConsume("k", fivePerMinute).allowed());
+        assertFalse(limiter.tryConsume("k", fivePerMinute).allowed());
+
+        clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+        assertEquals(4, limiter.tryConsume("k", fivePerMinute).remaining());
+    }
+
+    @Test
+    @DisplayName("Keys are limited independently")
+    void independentKeys() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryConsume("a", fivePerMinute);
+        }
+        assertFalse(limiter.tryConsume("a", fivePerMinute).allowed());
+        assertTrue(limiter.tryConsume("b", fivePerMinute).allowed());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.auracontrol;
+
+import com.example.auracontrol.shared.datasource.ReplicaLagMonitor;
+import com.example.auracontrol.shared.datasource.ReplicaRoutingDataSource;
+import com.example.auracontrol.shared.datasource.RoutingPools;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReplicaRoutingTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final AtomicReference<Double> lag = new AtomicReference<>(0.0);
+    private final AtomicBoolean reachable = new AtomicBoolean(true);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ReplicaLagMonitor monitor = new ReplicaLagMonitor(() -> {
+        if (!reachable.get()) {
+            throw new QueryTimeoutException("replica unreachable");
+        }
+        return lag.get();
+    }, Duration.ofSeconds(5), registry);
+    private ReplicaRoutingDataSource router;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        HikariDataSource primary = mock(HikariDataSource.class);
+        HikariDataSource replica = mock(HikariDataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        router = new ReplicaRoutingDataSource(new RoutingPools(primary, replica), monitor, registry);
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setCurrentTransactionName(null);
+    }
+
+    @Test
+    @DisplayName("A read-only service transaction goes to a replica that is streaming and current")
+    void readOnlyToReplica() throws SQLException {
+        monitor.check();
+        inTransaction("com.example.auracontrol.booking.service.AppointmentService.getUpcomingAppointments", true);
+
+        assertSame(replicaConnection, router.getConnection());
+        assertTrue(monitor.isUsable());
+    }
+
+    @Test
+    @DisplayName("Read-write transactions and Spring Data's implicit read-only ones stay on the primary")
+    void writesAndRepositoryCallsToPrimary() throws SQLException {
+        monitor.check();
+
+        inTransaction("com.example.auracontrol.booking.service.AppointmentService.createAppointment", false);
+        assertSame(primaryConnection, router.getConnection());
+
+        inTransaction("org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById", true);
+        assertSame(primaryConnection, router.getConnection());
+    }
+
+    @Test
+    @DisplayName("Lag over max-lag, a standby that stopped streaming or an unreachable replica fall back to the primary")
+    void unhealthyReplicaToPrimary() throws SQLException {
+        inTransaction("com.example.auracontrol.admin.service.DashboardService.getStats", true);
+        // Not checked yet
+        assertSame(primaryConnection, router.getConnection());
+
+        lag.set(6.0);
+        monitor.check();
+        assertFalse(monitor.isUsable());
+        assertSame(primaryConnection, router.getConnection());
+
+        lag.set(0.0);
+        monitor.check();
+        assertSame(replicaConnection, router.getConnection());
+
+        lag.set(null);
+        monitor.check();
+        assertFalse(monitor.isUsable());
+        assertSame(primaryConnection, router.getConnection());
+
+        reachable.set(false);
+        monitor.check();
+        assertFalse(monitor.isUsable());
+        assertSame(primaryConnection, router.getConnection());
+
+        assertEquals(4, registry.get("db.replica.fallback").counter().count());
+    }
+
+    private static void inTransaction(String name, boolean readOnly) {
+        TransactionSynchronizationManager.setCurrentTransactionName(name);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.auracontrol;
+
+import com.example.auracontrol.shared.concurrent.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight<String, Integer> flight = new SingleFlight<>("test", registry);
+
+    @Test
+    @DisplayName("Concurrent calls with the same key run the computation once and share its result")
+    void coalescesConcurrentCalls() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> leader = callers.submit(() -> flight.execute("k", () -> {
+                started.countDown();
+                await(release);
+                return runs.incrementAndGet();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 9; i++) {
+                followers.add(callers.submit(() -> flight.execute("k", runs::incrementAndGet)));
+            }
+            waitFor(() -> count("coalesced") == 9);
+            release.countDown();
+
+            assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+            for (Future<Integer> follower : followers) {
+                assertEquals(1, follower.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, runs.get());
+        assertEquals(1, count("executed"));
+    }
+
+    @Test
+    @DisplayName("Calls after the computation finished compute afresh; different keys never share")
+    void nothingIsCached() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertEquals(1, flight.execute("a", runs::incrementAndGet));
+        assertEquals(2, flight.execute("a", runs::incrementAndGet));
+        assertEquals(3, flight.execute("b", runs::incrementAndGet));
+        assertEquals(3, count("executed"));
+        assertEquals(0, count("coalesced"));
+    }
+
+    @Test
+    @DisplayName("Waiting callers get the leader's exception unwrapped, and the key is released")
+    void sharesFailure() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> leader = callers.submit(() -> flight.execute("k", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("boom");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Integer> follower = callers.submit(() -> flight.execute("k", () -> 42));
+            waitFor(() -> count("coalesced") == 1);
+            release.countDown();
+
+            for (Future<Integer> call : List.of(leader, follower)) {
+                Exception e = assertThrows(Exception.class, () -> call.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+                assertEquals("boom", e.getCause().getMessage());
+            }
+        }
+        assertEquals(7, flight.execute("k", () -> 7));
+    }
+
+    private double count(String outcome) {
+        return registry.get("singleflight.calls").tag("name", "test").tag("outcome", outcome).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached in time");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.auracontrol.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Entry point of the benchmark module.
+ *
+ * <pre>
+ * run [JMH options]          runs the benchmarks and writes results/&lt;timestamp&gt;-&lt;commit&gt;.json
+ * compare base.json new.json prints the change of every benchmark present in both files
+ * http [--option value ...]  HTTP load against a running application, see {@link HttpLoadRunner}
+ * http-compare a.json b.json prints two HTTP load results side by side
+ * </pre>
+ *
+ * The result files are small and meant to be committed, so a regression shows up as a diff
+ * between two commits' files.
+ */
+public final class BenchmarkRunner {
+    private static final Path RESULTS = Path.of("results");
+    private static final String REGRESSION = "REGRESSION";
+    private static final String IMPROVEMENT = "improvement";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Maven passes -Dbenchmark.args as a single argument
+        if (args.length == 1 && args[0].contains(" ")) {
+            args = args[0].trim().split("\\s+");
+        }
+        if (args.length == 0 || args[0].equals("run")) {
+            run(Arrays.copyOfRange(args, Math.min(1, args.length), args.length));
+        } else if (args[0].equals("compare") && args.length == 3) {
+            compare(Path.of(args[1]), Path.of(args[2]));
+        } else if (args[0].equals("http")) {
+            HttpLoadRunner.run(Arrays.copyOfRange(args, 1, args.length), RESULTS, resultName());
+        } else if (args[0].equals("http-compare") && args.length == 3) {
+            HttpLoadRunner.compare(Path.of(args[1]), Path.of(args[2]));
+        } else {
+            System.err.println("Usage: run [JMH options] | compare <base.json> <new.json>"
+                    + " | http [--option value ...] | http-compare <a.json> <b.json>");
+            System.exit(2);
+        }
+    }
+
+    private static void run(String[] jmhArgs) throws Exception {
+        Files.createDirectories(RESULTS);
+        File result = RESULTS.resolve(resultName() + ".json").toFile();
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(jmhArgs))
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.getPath())
+                .build();
+        new Runner(options).run();
+        System.out.println("Results written to " + result.getPath());
+    }
+
+    private static void compare(Path base, Path candidate) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> before = index(mapper.readTree(base.toFile()));
+        Map<String, JsonNode> after = index(mapper.readTree(candidate.toFile()));
+
+        System.out.printf("%-90s %14s %14s %9s%n", "benchmark", "base", "new", "change");
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : after.entrySet()) {
+            JsonNode old = before.get(entry.getKey());
+            if (old == null) {
+                continue;
+            }
+            JsonNode oldMetric = old.path("primaryMetric");
+            JsonNode newMetric = entry.getValue().path("primaryMetric");
+            double oldScore = oldMetric.path("score").asDouble();
+            double newScore = newMetric.path("score").asDouble();
+            double noise = finite(oldMetric.path("scoreError").asDouble()) + finite(newMetric.path("scoreError").asDouble());
+            double change = oldScore == 0 ? 0 : (newScore - oldScore) / oldScore * 100;
+            // throughput: higher is better; every other mode measures time
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+            boolean worse = higherIsBetter ? newScore < oldScore : newScore > oldScore;
+
+            String verdict = "";
+            // a change within the combined error bars is noise
+            if (Math.abs(newScore - oldScore) > noise) {
+                verdict = worse ? REGRESSION : IMPROVEMENT;
+                if (worse) {
+                    regressions++;
+                }
+            }
+            System.out.printf("%-90s %10.3f %-3s %10.3f %-3s %+8.1f%% %s%n", entry.getKey(),
+                    oldScore, shortUnit(oldMetric), newScore, shortUnit(newMetric), change, verdict);
+        }
+        System.out.printf("%d regression(s)%n", regressions);
+    }
+
+    // benchmark name plus its parameters, e.g. ...SlotAvailabilityBenchmark.evaluateDay{appointmentsPerDay=100, technicians=20}
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> index = new TreeMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            JsonNode params = result.path("params");
+            if (params.isObject() && !params.isEmpty()) {
+                Map<String, String> sorted = new TreeMap<>();
+                params.properties().forEach(field -> sorted.put(field.getKey(), field.getValue().asText()));
+                key.append(sorted);
+            }
+            index.put(key.toString(), result);
+        }
+        return index;
+    }
+
+    private static String resultName() {
+        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + "-" + commit();
+    }
+
+    private static String shortUnit(JsonNode metric) {
+        return metric.path("scoreUnit").asText().replace("/op", "");
+    }
+
+    private static double finite(double value) {
+        return Double.isFinite(value) ? value : 0;
+    }
+
+    private static String commit() {
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line = reader.readLine();
+                if (process.waitFor() == 0 && line != null && !line.isBlank()) {
+                    return line.trim();
+                }
+            }
+        } catch (IOException e) {
+            // not a git checkout
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "local";
+    }
+}
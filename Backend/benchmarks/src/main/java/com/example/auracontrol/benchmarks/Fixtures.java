@@ -0,0 +1,130 @@
+package com.example.auracontrol.benchmarks;
+
+import com.example.auracontrol.booking.entity.AbsenceRequest;
+import com.example.auracontrol.booking.entity.Appointment;
+import com.example.auracontrol.service.Service;
+import com.example.auracontrol.user.Role;
+import com.example.auracontrol.user.entity.Customer;
+import com.example.auracontrol.user.entity.Technician;
+import com.example.auracontrol.user.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * In-memory entity graphs shaped like one day of a branch. Seeded, so every fork and every
+ * commit benchmarks the same data.
+ */
+public final class Fixtures {
+    public static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+    private static final int[] DURATIONS = {30, 45, 60, 90, 120};
+
+    private final Random random;
+
+    public Fixtures(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static User user(int id, String name, Role role) {
+        User user = new User();
+        user.setUserId(id);
+        user.setName(name);
+        user.setEmail("user" + id + "@bench.test");
+        user.setPassword("{noop}bench");
+        user.setRole(role);
+        return user;
+    }
+
+    public List<Technician> technicians(int count) {
+        List<Technician> technicians = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Technician technician = new Technician();
+            technician.setTechnicianId(i);
+            technician.setUser(user(10_000 + i, "Technician " + i, Role.TECHNICIAN));
+            technicians.add(technician);
+        }
+        return technicians;
+    }
+
+    public List<Service> services(int count) {
+        List<Service> services = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Service service = new Service();
+            service.setServiceId(i);
+            service.setName("Service " + i);
+            service.setDurationMinutes(DURATIONS[random.nextInt(DURATIONS.length)]);
+            service.setPrice(BigDecimal.valueOf(50 + random.nextInt(450)));
+            services.add(service);
+        }
+        return services;
+    }
+
+    public List<Customer> customers(int count) {
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Customer customer = new Customer();
+            customer.setCustomerId(i);
+            customer.setUser(user(i, "Khách hàng " + i, Role.CUSTOMER));
+            customers.add(customer);
+        }
+        return customers;
+    }
+
+    /**
+     * Appointments between 09:00 and 21:00 on a 15 minute grid; overlaps are allowed, as in the
+     * lists the slot engine receives (one list per day, all technicians together).
+     */
+    public List<Appointment> appointments(int count, List<Technician> technicians, List<Service> services,
+                                          List<Customer> customers) {
+        List<Appointment> appointments = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Service service = services.get(random.nextInt(services.size()));
+            LocalDateTime start = DAY.atTime(9, 0).plusMinutes(15L * random.nextInt(44));
+            appointments.add(Appointment.builder()
+                    .appointmentId(i)
+                    .technician(technicians.get(random.nextInt(technicians.size())))
+                    .customer(customers.get(random.nextInt(customers.size())))
+                    .service(service)
+                    .startTime(start)
+                    .endTime(start.plusMinutes(service.getDurationMinutes()))
+                    .status(random.nextBoolean() ? "CONFIRMED" : "PENDING")
+                    .finalPrice(service.getPrice())
+                    .noteText(random.nextInt(4) == 0 ? "Prefers a quiet room" : null)
+                    .build());
+        }
+        return appointments;
+    }
+
+    /**
+     * Approved absences for roughly one technician in ten, each a few hours long.
+     */
+    public List<AbsenceRequest> absences(List<Technician> technicians) {
+        List<AbsenceRequest> absences = new ArrayList<>();
+        for (Technician technician : technicians) {
+            if (random.nextInt(10) == 0) {
+                LocalDateTime start = DAY.atTime(9 + random.nextInt(8), 0);
+                absences.add(AbsenceRequest.builder()
+                        .technician(technician)
+                        .startDate(start)
+                        .endDate(start.plusHours(2 + random.nextInt(3)))
+                        .status("APPROVED")
+                        .build());
+            }
+        }
+        return absences;
+    }
+
+    public <T> List<T> sample(List<T> items, double fraction) {
+        List<T> sample = new ArrayList<>();
+        for (T item : items) {
+            if (random.nextDouble() < fraction) {
+                sample.add(item);
+            }
+        }
+        return sample;
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.auracontrol.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop HTTP load against a running application, for comparing execution models (e.g. the
+ * default platform-thread setup against the {@code virtual} profile) on the same machine and data.
+ *
+ * <p>{@code concurrency} clients each send one request at a time until {@code duration} is over,
+ * alternating between the available-slot search and the customer's upcoming appointments, both of
+ * which hold a database connection. The summary goes to stdout and to
+ * results/http-&lt;timestamp&gt;-&lt;commit&gt;-&lt;label&gt;.json.</p>
+ *
+ * Start the application with {@code --app.rate-limit.enabled=false}, or the per-customer limits end
+ * the test after a few requests.
+ */
+final class HttpLoadRunner {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+    private final String label;
+    private final int concurrency;
+    private final Duration duration;
+    private final Duration warmup;
+    private final String email;
+    private final String password;
+    private final int serviceId;
+
+    private HttpLoadRunner(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8081");
+        this.label = options.getOrDefault("label", "run");
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "500"));
+        this.duration = Duration.parse("PT" + options.getOrDefault("duration", "60s").toUpperCase(Locale.ROOT));
+        this.warmup = Duration.parse("PT" + options.getOrDefault("warmup", "15s").toUpperCase(Locale.ROOT));
+        this.email = options.getOrDefault("email", "customer@example.com");
+        this.password = options.getOrDefault("password", "123456789");
+        this.serviceId = Integer.parseInt(options.getOrDefault("service-id", "1"));
+    }
+
+    /**
+     * Options as {@code --name value}: base-url, label, concurrency, duration, warmup, email,
+     * password, service-id.
+     */
+    static Path run(String[] args, Path resultsDir, String resultName) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        HttpLoadRunner runner = new HttpLoadRunner(options);
+        ObjectNode summary = runner.execute();
+
+        Files.createDirectories(resultsDir);
+        Path file = resultsDir.resolve("http-" + resultName + "-" + runner.label + ".json");
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), summary);
+        System.out.println(MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(summary));
+        return file;
+    }
+
+    /**
+     * Prints the headline numbers of two result files side by side.
+     */
+    static void compare(Path base, Path candidate) throws IOException {
+        JsonNode before = MAPPER.readTree(base.toFile());
+        JsonNode after = MAPPER.readTree(candidate.toFile());
+        System.out.printf("%-16s %14s %14s %9s%n", "", before.path("label").asText(), after.path("label").asText(), "change");
+        for (String field : List.of("throughputPerSecond", "p50Ms", "p90Ms", "p99Ms", "maxMs", "errorRate")) {
+            double a = before.path(field).asDouble();
+            double b = after.path(field).asDouble();
+            System.out.printf("%-16s %14.2f %14.2f %+8.1f%%%n", field, a, b, a == 0 ? 0 : (b - a) / a * 100);
+        }
+    }
+
+    private ObjectNode execute() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String token = login(client);
+        List<URI> targets = List.of(
+                URI.create(baseUrl + "/api/booking/available-slots?serviceId=" + serviceId
+                        + "&date=" + LocalDate.now().plusDays(1)),
+                URI.create(baseUrl + "/api/booking/upcoming-appointments"));
+
+        System.out.printf("Warming up for %s with %d clients...%n", warmup, concurrency);
+        drive(client, token, targets, warmup);
+        System.out.printf("Measuring for %s with %d clients...%n", duration, concurrency);
+        Recorder recorder = drive(client, token, targets, duration);
+        return recorder.summary();
+    }
+
+    private Recorder drive(HttpClient client, String token, List<URI> targets, Duration length) throws InterruptedException {
+        Recorder recorder = new Recorder(concurrency, length);
+        long deadline = System.nanoTime() + length.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                int clientIndex = c;
+                clients.execute(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    int i = clientIndex;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(targets.get(i++ % targets.size()))
+                                .header("Authorization", "Bearer " + token)
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            status = -1;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                        recorder.status(status);
+                    }
+                    recorder.add(latencies, count);
+                });
+            }
+        }
+        return recorder;
+    }
+
+    private String login(HttpClient client) throws IOException, InterruptedException {
+        ObjectNode body = MAPPER.createObjectNode().put("email", email).put("password", password);
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as " + email + " failed: HTTP " + response.statusCode());
+        }
+        return MAPPER.readTree(response.body()).path("token").asText();
+    }
+
+    private final class Recorder {
+        private final Duration length;
+        private final List<long[]> perClient;
+        private final Map<Integer, AtomicInteger> statuses = new TreeMap<>();
+
+        private Recorder(int clients, Duration length) {
+            this.length = length;
+            this.perClient = new ArrayList<>(clients);
+        }
+
+        synchronized void add(long[] latencies, int count) {
+            perClient.add(Arrays.copyOf(latencies, count));
+        }
+
+        synchronized void status(int status) {
+            statuses.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+        }
+
+        synchronized ObjectNode summary() {
+            long[] all = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            long errors = statuses.entrySet().stream()
+                    .filter(e -> e.getKey() < 200 || e.getKey() >= 300)
+                    .mapToLong(e -> e.getValue().get())
+                    .sum();
+
+            ObjectNode summary = MAPPER.createObjectNode();
+            summary.put("label", label);
+            summary.put("baseUrl", baseUrl);
+            summary.put("concurrency", concurrency);
+            summary.put("durationSeconds", length.toSeconds());
+            summary.put("requests", all.length);
+            summary.put("throughputPerSecond", all.length / (double) Math.max(1, length.toSeconds()));
+            summary.put("p50Ms", percentile(all, 0.50));
+            summary.put("p90Ms", percentile(all, 0.90));
+            summary.put("p99Ms", percentile(all, 0.99));
+            summary.put("maxMs", all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+            summary.put("errorRate", all.length == 0 ? 0 : errors / (double) all.length);
+            ObjectNode byStatus = summary.putObject("statuses");
+            // -1 = connection error or timeout
+            statuses.forEach((status, count) -> byStatus.put(String.valueOf(status), count.get()));
+            return summary;
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.clamp(index, 0, sorted.length - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.auracontrol.booking.service;
+
+import com.example.auracontrol.benchmarks.Fixtures;
+import com.example.auracontrol.booking.dto.AdminAppointmentDto;
+import com.example.auracontrol.booking.entity.Appointment;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of {@link AppointmentService#getAppointmentsForAdmin} on a fully initialised
+ * page. In the application the same mapping also triggers any lazy association the query did not
+ * fetch; that part is a database cost and is not measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdminAppointmentMappingBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private Page<Appointment> page;
+
+    @Setup
+    public void setUp() {
+        Fixtures fixtures = new Fixtures(42);
+        List<Appointment> appointments = fixtures.appointments(pageSize,
+                fixtures.technicians(20), fixtures.services(20), fixtures.customers(1_000));
+        page = new PageImpl<>(appointments, PageRequest.of(0, pageSize), 100_000);
+    }
+
+    @Benchmark
+    public Page<AdminAppointmentDto> mapPage() {
+        return page.map(AppointmentService::toAdminDto);
+    }
+}
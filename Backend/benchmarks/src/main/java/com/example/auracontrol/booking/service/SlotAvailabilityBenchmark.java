@@ -0,0 +1,91 @@
+package com.example.auracontrol.booking.service;
+
+import com.example.auracontrol.benchmarks.Fixtures;
+import com.example.auracontrol.booking.entity.AbsenceRequest;
+import com.example.auracontrol.booking.entity.Appointment;
+import com.example.auracontrol.service.Service;
+import com.example.auracontrol.user.entity.Technician;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory part of {@link AppointmentService#getAvailableSlots}: after the day's appointments,
+ * absences and resource usage are loaded, every 15 minute slot is checked with
+ * {@code countBusyTechnicians} and {@code countBusyResources}. Both scan whole lists, so the cost
+ * grows with technicians x appointments per slot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotAvailabilityBenchmark {
+
+    @Param({"5", "20", "50"})
+    public int technicians;
+
+    @Param({"20", "100", "500"})
+    public int appointmentsPerDay;
+
+    @Param({"60"})
+    public int durationMinutes;
+
+    private List<Technician> skilledTechnicians;
+    private List<Appointment> appointments;
+    private List<AbsenceRequest> absences;
+    private List<Appointment> roomUsage;
+    private LocalDateTime peakSlot;
+
+    @Setup
+    public void setUp() {
+        Fixtures fixtures = new Fixtures(42);
+        List<Technician> all = fixtures.technicians(technicians);
+        List<Service> services = fixtures.services(20);
+        appointments = fixtures.appointments(appointmentsPerDay, all, services, fixtures.customers(1_000));
+        absences = fixtures.absences(all);
+        // about half the technicians are qualified for the booked service
+        skilledTechnicians = all.subList(0, Math.max(1, all.size() / 2));
+        // one resource type used by most services
+        roomUsage = fixtures.sample(appointments, 0.8);
+        peakSlot = Fixtures.DAY.atTime(17, 0);
+    }
+
+    @Benchmark
+    public int evaluateDay() {
+        LocalDateTime lunchStart = Fixtures.DAY.atTime(12, 0);
+        LocalDateTime lunchEnd = Fixtures.DAY.atTime(14, 0);
+        LocalDateTime closingTime = Fixtures.DAY.atTime(21, 0);
+        long totalRooms = 20;
+
+        int available = 0;
+        LocalDateTime slot = Fixtures.DAY.atTime(9, 0);
+        while (!slot.plusMinutes(durationMinutes).isAfter(closingTime)) {
+            LocalDateTime slotEnd = slot.plusMinutes(durationMinutes);
+            if (!(slot.isBefore(lunchEnd) && slotEnd.isAfter(lunchStart))) {
+                long busyTechnicians = AppointmentService.countBusyTechnicians(
+                        skilledTechnicians, appointments, absences, slot, slotEnd);
+                long busyRooms = AppointmentService.countBusyResources(roomUsage, slot, slotEnd);
+                if (busyTechnicians < skilledTechnicians.size() && totalRooms - busyRooms >= 1) {
+                    available++;
+                }
+            }
+            slot = slot.plusMinutes(15);
+        }
+        return available;
+    }
+
+    @Benchmark
+    public long countBusyTechniciansAtPeak() {
+        return AppointmentService.countBusyTechnicians(
+                skilledTechnicians, appointments, absences, peakSlot, peakSlot.plusMinutes(durationMinutes));
+    }
+
+    @Benchmark
+    public long countBusyResourcesAtPeak() {
+        return AppointmentService.countBusyResources(roomUsage, peakSlot, peakSlot.plusMinutes(durationMinutes));
+    }
+}
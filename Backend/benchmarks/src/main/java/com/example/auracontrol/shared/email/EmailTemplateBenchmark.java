@@ -0,0 +1,62 @@
+package com.example.auracontrol.shared.email;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of the shipped appointment reminder, the template sent most often. Subject and body both
+ * have placeholders, so this covers the RFC 2047 encoding and the HTML escaping of every value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+    private static final String TEMPLATE = "appointment-reminder";
+
+    private String source;
+    private EmailTemplate template;
+    private Map<String, String> variables;
+
+    @Setup
+    public void setUp() {
+        try (InputStream in = EmailTemplate.class.getResourceAsStream("/templates/email/" + TEMPLATE + ".html")) {
+            if (in == null) {
+                throw new IllegalStateException("Template " + TEMPLATE + " is not on the classpath");
+            }
+            source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        template = EmailTemplate.compile(TEMPLATE, source);
+        variables = Map.of(
+                "name", "Nguyễn Thị Hoa",
+                "serviceName", "Hot Stone & Aroma Massage",
+                "startTime", "17:30 07/01/2030",
+                "technicianName", "Trần Minh <Anh>",
+                "when", "tomorrow");
+    }
+
+    @Benchmark
+    public String renderBody() {
+        return template.renderBody(variables);
+    }
+
+    @Benchmark
+    public String encodedSubject() {
+        return template.encodedSubject(variables);
+    }
+
+    @Benchmark
+    public EmailTemplate compile() {
+        return EmailTemplate.compile(TEMPLATE, source);
+    }
+}
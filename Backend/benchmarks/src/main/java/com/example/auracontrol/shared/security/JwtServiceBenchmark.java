@@ -0,0 +1,48 @@
+package com.example.auracontrol.shared.security;
+
+import com.example.auracontrol.benchmarks.Fixtures;
+import com.example.auracontrol.user.Role;
+import com.example.auracontrol.user.entity.User;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT work: {@link JwtAuthFilter} parses and verifies the token once and builds the
+ * principal from its claims; login issues a token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        String secret = Base64.getEncoder().encodeToString(
+                "benchmark-secret-benchmark-secret-0123456789".getBytes(StandardCharsets.UTF_8));
+        jwtService = new JwtService(secret, 3_600_000);
+        user = Fixtures.user(42, "Bench User", Role.CUSTOMER);
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public AuthenticatedUser parseAndValidate() {
+        Claims claims = jwtService.parseClaims(token);
+        return jwtService.toPrincipal(claims);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+}
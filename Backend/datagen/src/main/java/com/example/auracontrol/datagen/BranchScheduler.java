@@ -0,0 +1,279 @@
+package com.example.auracontrol.datagen;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates and copies the appointments of one branch.
+ *
+ * <p>The day is cut into 15 minute slots between opening and closing, and each technician and resource
+ * keeps its busy slots of the current day in one {@code long}, so finding a free technician or room is a
+ * mask test. Only non-cancelled appointments occupy slots, mirroring the booking rules, so the result
+ * passes every overlap check the triggers would have made. Nothing is booked into the 12:00 - 14:00
+ * lunch break, which the booking service never offers as a slot.</p>
+ *
+ * <p>Appointments of the branch are copied first and their resource links right after, on the same
+ * connection, so the links never wait on an uncommitted appointment.</p>
+ */
+final class BranchScheduler {
+    static final int OPENING_HOUR = 9;
+    static final int SLOTS_PER_DAY = 48; // 09:00 - 21:00
+    static final int MAX_ATTEMPTS = 30;
+    // 12:00 - 14:00, the lunch break AppointmentService leaves out of the available slots
+    static final long LUNCH_MASK = ((1L << 8) - 1) << 12;
+
+    // relative demand per opening hour, 09:00 .. 20:00
+    private static final double[] HOUR_WEIGHTS = {0.5, 0.8, 1.0, 1.1, 0.9, 0.8, 0.9, 1.1, 1.4, 1.5, 1.3, 0.8};
+    // Monday .. Sunday
+    private static final double[] DAY_WEIGHTS = {0.8, 0.85, 0.9, 1.0, 1.2, 1.4, 1.1};
+
+    private static final String[] SLOT_TIMES = new String[SLOTS_PER_DAY + 1];
+    private static final double[] SLOT_CUMULATIVE = new double[SLOTS_PER_DAY];
+
+    static {
+        for (int slot = 0; slot <= SLOTS_PER_DAY; slot++) {
+            int minutes = OPENING_HOUR * 60 + slot * Catalog.SLOT_MINUTES;
+            SLOT_TIMES[slot] = String.format("%02d:%02d:00", minutes / 60, minutes % 60);
+        }
+        double total = 0;
+        for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+            if ((LUNCH_MASK & (1L << slot)) == 0) {
+                total += HOUR_WEIGHTS[slot / 4];
+            }
+            SLOT_CUMULATIVE[slot] = total;
+        }
+        for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+            SLOT_CUMULATIVE[slot] /= total;
+        }
+    }
+
+    record Result(long placed, long dropped, long links) {
+    }
+
+    private final GeneratorConfig config;
+    private final Catalog catalog;
+    private final Catalog.Branch branch;
+    private final long target;
+    private final int firstAppointmentId;
+    private final SplittableRandom random;
+    private final double[] serviceCumulative;
+
+    BranchScheduler(GeneratorConfig config, Catalog catalog, Catalog.Branch branch, long target, int firstAppointmentId) {
+        this.config = config;
+        this.catalog = catalog;
+        this.branch = branch;
+        this.target = target;
+        this.firstAppointmentId = firstAppointmentId;
+        this.random = new SplittableRandom(config.seed() * 31 + branch.index() + 1);
+
+        List<Catalog.ServiceDef> services = catalog.services;
+        this.serviceCumulative = new double[services.size()];
+        double total = 0;
+        for (int s = 0; s < services.size(); s++) {
+            total += services.get(s).popularity();
+            serviceCumulative[s] = total;
+        }
+        for (int s = 0; s < services.size(); s++) {
+            serviceCumulative[s] /= total;
+        }
+    }
+
+    Result run(Connection connection) throws SQLException, IOException {
+        long[] technicianBusy = new long[branch.technicians().size()];
+        long[] roomBusy = new long[branch.rooms().size()];
+        long[] vipBusy = new long[branch.vipRooms().size()];
+        long[] deviceBusy = new long[branch.devices().size()];
+
+        double[] dayWeights = new double[config.days()];
+        double totalWeight = 0;
+        for (int d = 0; d < config.days(); d++) {
+            LocalDate date = config.start().plusDays(d);
+            double weight = DAY_WEIGHTS[date.getDayOfWeek().getValue() - 1] * (date.getMonthValue() == 12 ? 1.2 : 1.0);
+            dayWeights[d] = weight;
+            totalWeight += weight;
+        }
+
+        IntPairs links = new IntPairs((int) Math.min(Integer.MAX_VALUE / 4, target + target / 2));
+        long placed = 0;
+        long dropped = 0;
+        int appointmentId = firstAppointmentId;
+        double cumulativeWeight = 0;
+
+        try (CopyWriter appointments = new CopyWriter(connection, "appointment",
+                "appointment_id, customer_id, technician_id, service_id, start_time, end_time, status, final_price, created_at")) {
+            for (int d = 0; d < config.days(); d++) {
+                // exact split of the branch target over the days, proportional to the day weights
+                long before = (long) Math.floor(target * cumulativeWeight / totalWeight);
+                cumulativeWeight += dayWeights[d];
+                long count = d == config.days() - 1 ? target - before : (long) Math.floor(target * cumulativeWeight / totalWeight) - before;
+
+                LocalDate date = config.start().plusDays(d);
+                String day = date + " ";
+                boolean past = date.isBefore(config.today());
+                Arrays.fill(technicianBusy, 0);
+                Arrays.fill(roomBusy, 0);
+                Arrays.fill(vipBusy, 0);
+                Arrays.fill(deviceBusy, 0);
+
+                for (long i = 0; i < count; i++) {
+                    boolean booked = false;
+                    for (int attempt = 0; attempt < MAX_ATTEMPTS && !booked; attempt++) {
+                        int serviceIndex = pick(serviceCumulative);
+                        Catalog.ServiceDef service = catalog.services.get(serviceIndex);
+                        int slots = service.slots();
+                        int startSlot = pick(SLOT_CUMULATIVE);
+                        if (startSlot + slots > SLOTS_PER_DAY) {
+                            continue;
+                        }
+                        long mask = ((1L << slots) - 1) << startSlot;
+                        if ((mask & LUNCH_MASK) != 0) {
+                            continue;
+                        }
+
+                        int technician = pickFree(branch.techniciansByService()[serviceIndex], technicianBusy, mask);
+                        if (technician < 0) {
+                            continue;
+                        }
+                        long[] roomPool = service.vip() ? vipBusy : roomBusy;
+                        int room = pickFree(roomPool, mask);
+                        if (room < 0) {
+                            continue;
+                        }
+                        int device = -1;
+                        if (service.needsDevice()) {
+                            device = pickFree(deviceBusy, mask);
+                            if (device < 0) {
+                                continue;
+                            }
+                        }
+
+                        String status = status(past);
+                        if (!status.equals("CANCELLED")) {
+                            technicianBusy[technician] |= mask;
+                            roomPool[room] |= mask;
+                            if (device >= 0) {
+                                deviceBusy[device] |= mask;
+                            }
+                        }
+
+                        int id = appointmentId++;
+                        appointments.col(id)
+                                .col(customer())
+                                .col(branch.technicians().get(technician).technicianId())
+                                .col(service.id())
+                                .raw(day + SLOT_TIMES[startSlot])
+                                .raw(day + SLOT_TIMES[startSlot + slots])
+                                .raw(status)
+                                .raw(service.price().toPlainString())
+                                .raw(date.minusDays(1 + random.nextInt(14)) + " " + SLOT_TIMES[random.nextInt(SLOTS_PER_DAY)]);
+                        appointments.end();
+
+                        links.add(id, (service.vip() ? branch.vipRooms() : branch.rooms()).get(room).id());
+                        if (device >= 0) {
+                            links.add(id, branch.devices().get(device).id());
+                        }
+                        booked = true;
+                    }
+                    if (booked) {
+                        placed++;
+                    } else {
+                        dropped++;
+                    }
+                }
+            }
+        }
+
+        try (CopyWriter resources = new CopyWriter(connection, "appointment_resource", "appointment_id, resource_id")) {
+            for (int i = 0; i < links.size(); i++) {
+                resources.col(links.first(i)).col(links.second(i));
+                resources.end();
+            }
+        }
+        return new Result(placed, dropped, links.size());
+    }
+
+    private String status(boolean past) {
+        int roll = random.nextInt(100);
+        if (past) {
+            return roll < 85 ? "COMPLETED" : "CANCELLED";
+        }
+        return roll < 60 ? "CONFIRMED" : roll < 90 ? "PENDING" : "CANCELLED";
+    }
+
+    // a few regulars book far more often than the long tail
+    private int customer() {
+        return catalog.firstCustomerId + (int) (config.customers() * Math.pow(random.nextDouble(), 1.6));
+    }
+
+    private int pick(double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        index = index >= 0 ? index : -index - 1;
+        return Math.min(index, cumulative.length - 1);
+    }
+
+    private int pickFree(long[] busy, long mask) {
+        if (busy.length == 0) {
+            return -1;
+        }
+        int offset = random.nextInt(busy.length);
+        for (int i = 0; i < busy.length; i++) {
+            int candidate = (offset + i) % busy.length;
+            if ((busy[candidate] & mask) == 0) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    private int pickFree(int[] candidates, long[] busy, long mask) {
+        if (candidates.length == 0) {
+            return -1;
+        }
+        int offset = random.nextInt(candidates.length);
+        for (int i = 0; i < candidates.length; i++) {
+            int candidate = candidates[(offset + i) % candidates.length];
+            if ((busy[candidate] & mask) == 0) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Growable list of (appointment id, resource id) pairs without boxing.
+     */
+    private static final class IntPairs {
+        private int[] values;
+        private int size;
+
+        IntPairs(int expected) {
+            this.values = new int[Math.max(16, expected * 2)];
+        }
+
+        void add(int first, int second) {
+            if (size * 2 + 2 > values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size * 2] = first;
+            values[size * 2 + 1] = second;
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int first(int i) {
+            return values[i * 2];
+        }
+
+        int second(int i) {
+            return values[i * 2 + 1];
+        }
+    }
+}
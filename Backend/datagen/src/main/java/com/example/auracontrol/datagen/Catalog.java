@@ -0,0 +1,131 @@
+package com.example.auracontrol.datagen;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The static part of a dataset: services, and per branch its technicians (with skills) and resources.
+ * Built from the seed alone, so the same config always produces the same catalog and ids.
+ *
+ * <p>The schema has no branch table; a branch is the unit of partitioning. Every appointment uses
+ * a technician and resources of one branch, which is what lets branches be scheduled independently
+ * and in parallel while staying conflict-free.</p>
+ */
+final class Catalog {
+    static final int[] DURATIONS = {30, 45, 60, 60, 75, 90, 90, 120};
+    static final int SLOT_MINUTES = 15;
+
+    record ServiceDef(int id, String name, BigDecimal price, int durationMinutes,
+                      boolean vip, boolean needsDevice, double popularity) {
+        int slots() {
+            return durationMinutes / SLOT_MINUTES;
+        }
+    }
+
+    record TechnicianDef(int userId, int technicianId, String name, String email) {
+    }
+
+    record ResourceDef(int id, String name, String type) {
+    }
+
+    record Branch(int index,
+                  List<TechnicianDef> technicians,
+                  List<ResourceDef> rooms,
+                  List<ResourceDef> vipRooms,
+                  List<ResourceDef> devices,
+                  // per service index: indices into technicians of those who can perform it
+                  int[][] techniciansByService) {
+        String code() {
+            return String.format("B%03d", index + 1);
+        }
+    }
+
+    final List<ServiceDef> services;
+    final List<Branch> branches;
+    final int firstCustomerUserId;
+    final int firstCustomerId;
+
+    private Catalog(List<ServiceDef> services, List<Branch> branches, int firstCustomerUserId, int firstCustomerId) {
+        this.services = services;
+        this.branches = branches;
+        this.firstCustomerUserId = firstCustomerUserId;
+        this.firstCustomerId = firstCustomerId;
+    }
+
+    static Catalog build(GeneratorConfig config, IdBases ids) {
+        SplittableRandom random = new SplittableRandom(config.seed());
+
+        List<ServiceDef> services = new ArrayList<>(config.services());
+        for (int i = 0; i < config.services(); i++) {
+            int duration = DURATIONS[random.nextInt(DURATIONS.length)];
+            BigDecimal price = BigDecimal.valueOf(10 + duration * (0.8 + random.nextDouble() * 0.8))
+                    .setScale(0, RoundingMode.HALF_UP)
+                    .setScale(2, RoundingMode.UNNECESSARY);
+            boolean vip = config.vipRoomsPerBranch() > 0 && random.nextDouble() < 0.15;
+            boolean device = config.devicesPerBranch() > 0 && random.nextDouble() < 0.35;
+            // a few services get most of the bookings
+            double popularity = 1.0 / Math.pow(i + 1, 0.8);
+            services.add(new ServiceDef(ids.service() + i, String.format("Service %02d (%d min)", i + 1, duration),
+                    price, duration, vip, device, popularity));
+        }
+
+        List<Branch> branches = new ArrayList<>(config.branches());
+        int user = ids.user();
+        int technician = ids.technician();
+        int resource = ids.resource();
+        for (int b = 0; b < config.branches(); b++) {
+            String code = String.format("B%03d", b + 1);
+
+            List<TechnicianDef> technicians = new ArrayList<>(config.techniciansPerBranch());
+            for (int t = 0; t < config.techniciansPerBranch(); t++) {
+                technicians.add(new TechnicianDef(user++, technician++,
+                        code + " Technician " + (t + 1),
+                        String.format("tech.%s.%02d.s%d@datagen.test", code.toLowerCase(), t + 1, config.seed())));
+            }
+
+            List<ResourceDef> rooms = new ArrayList<>();
+            for (int r = 0; r < config.roomsPerBranch(); r++) {
+                rooms.add(new ResourceDef(resource++, code + " Room " + (r + 1), "ROOM"));
+            }
+            List<ResourceDef> vipRooms = new ArrayList<>();
+            for (int r = 0; r < config.vipRoomsPerBranch(); r++) {
+                vipRooms.add(new ResourceDef(resource++, code + " VIP Room " + (r + 1), "VIP_ROOM"));
+            }
+            List<ResourceDef> devices = new ArrayList<>();
+            for (int r = 0; r < config.devicesPerBranch(); r++) {
+                devices.add(new ResourceDef(resource++, code + " Device " + (r + 1), "DEVICE"));
+            }
+
+            // each technician knows about half the services; every service gets at least two per branch
+            int[][] byService = new int[services.size()][];
+            for (int s = 0; s < services.size(); s++) {
+                List<Integer> qualified = new ArrayList<>();
+                for (int t = 0; t < technicians.size(); t++) {
+                    if (random.nextBoolean()) {
+                        qualified.add(t);
+                    }
+                }
+                while (qualified.size() < Math.min(2, technicians.size())) {
+                    int t = random.nextInt(technicians.size());
+                    if (!qualified.contains(t)) {
+                        qualified.add(t);
+                    }
+                }
+                byService[s] = qualified.stream().mapToInt(Integer::intValue).sorted().toArray();
+            }
+
+            branches.add(new Branch(b, technicians, rooms, vipRooms, devices, byService));
+        }
+
+        return new Catalog(services, branches, user, ids.customer());
+    }
+
+    /**
+     * First free id of every SERIAL column the generator writes explicitly.
+     */
+    record IdBases(int user, int technician, int customer, int service, int resource, int appointment) {
+    }
+}
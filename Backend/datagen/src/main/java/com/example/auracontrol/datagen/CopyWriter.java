@@ -0,0 +1,81 @@
+package com.example.auracontrol.datagen;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Streams rows into one {@code COPY ... FROM STDIN (FORMAT csv)}. Rows are never collected;
+ * the driver sends the buffer whenever it fills up. Closing the writer ends the copy.
+ */
+final class CopyWriter implements AutoCloseable {
+    private static final int BUFFER = 1 << 16;
+
+    private final Writer out;
+    private boolean firstColumn = true;
+    private long rows;
+
+    CopyWriter(Connection connection, String table, String columns) throws SQLException {
+        PGCopyOutputStream stream = new PGCopyOutputStream(connection.unwrap(PGConnection.class),
+                "COPY " + table + " (" + columns + ") FROM STDIN (FORMAT csv)", BUFFER);
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER);
+    }
+
+    CopyWriter col(long value) throws IOException {
+        separator();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * A value that needs no quoting: numbers, booleans, timestamps, enum names.
+     */
+    CopyWriter raw(String value) throws IOException {
+        separator();
+        out.write(value);
+        return this;
+    }
+
+    CopyWriter text(String value) throws IOException {
+        separator();
+        out.write('"');
+        out.write(value.indexOf('"') < 0 ? value : value.replace("\"", "\"\""));
+        out.write('"');
+        return this;
+    }
+
+    // an unquoted empty field is NULL in csv format
+    CopyWriter nul() throws IOException {
+        separator();
+        return this;
+    }
+
+    void end() throws IOException {
+        out.write('\n');
+        firstColumn = true;
+        rows++;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    private void separator() throws IOException {
+        if (!firstColumn) {
+            out.write(',');
+        }
+        firstColumn = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.auracontrol.datagen;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fills a migrated AuraControl database with a reproducible, conflict-free synthetic dataset.
+ *
+ * <pre>
+ * mvn -f Backend/datagen/pom.xml -q compile exec:java -Dexec.args="--appointments 10000000 --truncate"
+ * </pre>
+ *
+ * <p>Static data (services, resources, technicians) is copied on one connection; customers and
+ * appointments are copied in parallel partitions, each on its own connection. The same arguments
+ * always produce the same rows. The generator expects exclusive access to the database while it runs:
+ * ids are assigned from the current maximum and the sequences are moved past them at the end.</p>
+ */
+public final class DataGenerator {
+
+    private static final String[] TRUNCATED_TABLES = {
+            "appointment_reminder", "appointment_resource", "appointment", "absence_request",
+            "technician_services", "service_resource_requirement", "technician", "customer",
+            "resources", "services", "email_outbox", "users"
+    };
+
+    private final GeneratorConfig config;
+
+    private DataGenerator(GeneratorConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        GeneratorConfig config;
+        try {
+            config = GeneratorConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        new DataGenerator(config).run();
+    }
+
+    private void run() throws Exception {
+        long started = System.nanoTime();
+        // every generated user gets the same password; hashing it once keeps the load hash-free
+        String passwordHash = new BCryptPasswordEncoder(10).encode(config.userPassword());
+        System.out.printf("Generating %,d appointments: %d branches x %d technicians, %d services, %,d customers, %d days from %s (seed %d, %d threads)%n",
+                config.appointments(), config.branches(), config.techniciansPerBranch(), config.services(),
+                config.customers(), config.days(), config.start(), config.seed(), config.threads());
+
+        Catalog catalog;
+        Catalog.IdBases ids;
+        try (Connection connection = connect()) {
+            if (config.truncate()) {
+                execute(connection, "TRUNCATE " + String.join(", ", TRUNCATED_TABLES) + " RESTART IDENTITY CASCADE");
+                System.out.println("Truncated existing data");
+            }
+            ids = new Catalog.IdBases(
+                    nextId(connection, "users", "user_id"),
+                    nextId(connection, "technician", "technician_id"),
+                    nextId(connection, "customer", "customer_id"),
+                    nextId(connection, "services", "service_id"),
+                    nextId(connection, "resources", "resource_id"),
+                    nextId(connection, "appointment", "appointment_id"));
+            catalog = Catalog.build(config, ids);
+            writeCatalog(connection, catalog, passwordHash);
+        }
+        lap(started, "catalog");
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.threads());
+        try {
+            writeCustomers(executor, catalog, passwordHash);
+            lap(started, "customers");
+
+            long[] totals = writeAppointments(executor, catalog, ids.appointment());
+            lap(started, "appointments");
+            System.out.printf("Placed %,d appointments with %,d resource links%n", totals[0], totals[2]);
+            if (totals[1] > 0) {
+                System.out.printf("%,d appointments did not fit without a conflict; raise --technicians-per-branch, --branches or --days%n", totals[1]);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (Connection connection = connect()) {
+            for (String[] serial : new String[][]{
+                    {"users", "user_id"}, {"technician", "technician_id"}, {"customer", "customer_id"},
+                    {"services", "service_id"}, {"resources", "resource_id"}, {"appointment", "appointment_id"}}) {
+                execute(connection, "SELECT setval(pg_get_serial_sequence('" + serial[0] + "', '" + serial[1] + "'), "
+                        + "(SELECT COALESCE(MAX(" + serial[1] + "), 1) FROM " + serial[0] + "))");
+            }
+            execute(connection, "ANALYZE");
+        }
+        lap(started, "sequences and ANALYZE");
+    }
+
+    private void writeCatalog(Connection connection, Catalog catalog, String passwordHash) throws SQLException, IOException {
+        try (CopyWriter out = new CopyWriter(connection, "services",
+                "service_id, name, description, price, duration_minutes, is_active")) {
+            for (Catalog.ServiceDef service : catalog.services) {
+                out.col(service.id()).text(service.name()).text("Generated service").raw(service.price().toPlainString())
+                        .col(service.durationMinutes()).raw("true");
+                out.end();
+            }
+        }
+        try (CopyWriter out = new CopyWriter(connection, "service_resource_requirement",
+                "service_id, resource_type, quantity")) {
+            for (Catalog.ServiceDef service : catalog.services) {
+                out.col(service.id()).raw(service.vip() ? "VIP_ROOM" : "ROOM").col(1);
+                out.end();
+                if (service.needsDevice()) {
+                    out.col(service.id()).raw("DEVICE").col(1);
+                    out.end();
+                }
+            }
+        }
+        try (CopyWriter out = new CopyWriter(connection, "resources", "resource_id, name, type, is_deleted")) {
+            for (Catalog.Branch branch : catalog.branches) {
+                for (List<Catalog.ResourceDef> pool : List.of(branch.rooms(), branch.vipRooms(), branch.devices())) {
+                    for (Catalog.ResourceDef resource : pool) {
+                        out.col(resource.id()).text(resource.name()).raw(resource.type()).raw("false");
+                        out.end();
+                    }
+                }
+            }
+        }
+
+        try (CopyWriter out = new CopyWriter(connection, "users", "user_id, name, email, password, role, is_enabled, created_at")) {
+            String createdAt = config.start().minusDays(30) + " 09:00:00";
+            for (Catalog.Branch branch : catalog.branches) {
+                for (Catalog.TechnicianDef technician : branch.technicians()) {
+                    out.col(technician.userId()).text(technician.name()).text(technician.email()).text(passwordHash)
+                            .raw("TECHNICIAN").raw("true").raw(createdAt);
+                    out.end();
+                }
+            }
+        }
+        try (CopyWriter out = new CopyWriter(connection, "technician", "technician_id, user_id")) {
+            for (Catalog.Branch branch : catalog.branches) {
+                for (Catalog.TechnicianDef technician : branch.technicians()) {
+                    out.col(technician.technicianId()).col(technician.userId());
+                    out.end();
+                }
+            }
+        }
+        try (CopyWriter out = new CopyWriter(connection, "technician_services", "technician_id, service_id")) {
+            for (Catalog.Branch branch : catalog.branches) {
+                int[][] byService = branch.techniciansByService();
+                for (int s = 0; s < byService.length; s++) {
+                    for (int t : byService[s]) {
+                        out.col(branch.technicians().get(t).technicianId()).col(catalog.services.get(s).id());
+                        out.end();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Customers are split into one contiguous id range per thread. Each partition copies its users
+     * and then its customer rows, so the foreign keys only ever point at committed users.
+     */
+    private void writeCustomers(ExecutorService executor, Catalog catalog, String passwordHash) throws Exception {
+        int partitions = Math.max(1, Math.min(config.threads(), config.customers() / 10_000));
+        int perPartition = (config.customers() + partitions - 1) / partitions;
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < partitions; p++) {
+            int from = p * perPartition;
+            int to = Math.min(config.customers(), from + perPartition);
+            int partition = p;
+            futures.add(executor.submit(() -> {
+                SplittableRandom random = new SplittableRandom(config.seed() * 17 + partition);
+                LocalDate earliest = config.start().minusDays(365);
+                try (Connection connection = connect()) {
+                    try (CopyWriter out = new CopyWriter(connection, "users", "user_id, name, email, password, role, is_enabled, created_at")) {
+                        for (int c = from; c < to; c++) {
+                            out.col(catalog.firstCustomerUserId + c).text("Customer " + (c + 1))
+                                    .text("customer." + (c + 1) + ".s" + config.seed() + "@datagen.test").text(passwordHash)
+                                    .raw("CUSTOMER").raw("true")
+                                    .raw(earliest.plusDays(random.nextInt(365)) + " 12:00:00");
+                            out.end();
+                        }
+                    }
+                    try (CopyWriter out = new CopyWriter(connection, "customer", "customer_id, user_id")) {
+                        for (int c = from; c < to; c++) {
+                            out.col(catalog.firstCustomerId + c).col(catalog.firstCustomerUserId + c);
+                            out.end();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        await(futures);
+    }
+
+    /**
+     * One partition per branch, each with a fixed block of appointment ids, so the ids do not depend
+     * on which thread finishes first. The appointment triggers are disabled for the load: they would
+     * recompute end times and auto-assign resources for rows that are already complete and
+     * conflict-free. Foreign keys stay enforced.
+     *
+     * @return placed, dropped, resource links
+     */
+    private long[] writeAppointments(ExecutorService executor, Catalog catalog, int firstAppointmentId) throws Exception {
+        try (Connection control = connect()) {
+            execute(control, "ALTER TABLE appointment DISABLE TRIGGER USER");
+            try {
+                List<Future<BranchScheduler.Result>> futures = new ArrayList<>();
+                int nextId = firstAppointmentId;
+                for (Catalog.Branch branch : catalog.branches) {
+                    long target = config.appointments() / config.branches()
+                            + (branch.index() < config.appointments() % config.branches() ? 1 : 0);
+                    BranchScheduler scheduler = new BranchScheduler(config, catalog, branch, target, nextId);
+                    nextId += (int) target;
+                    futures.add(executor.submit(() -> {
+                        try (Connection connection = connect()) {
+                            return scheduler.run(connection);
+                        }
+                    }));
+                }
+
+                long[] totals = new long[3];
+                int done = 0;
+                for (Future<BranchScheduler.Result> future : futures) {
+                    BranchScheduler.Result result = get(future);
+                    totals[0] += result.placed();
+                    totals[1] += result.dropped();
+                    totals[2] += result.links();
+                    done++;
+                    if (done % Math.max(1, futures.size() / 10) == 0 || done == futures.size()) {
+                        System.out.printf("  %d/%d branches, %,d appointments%n", done, futures.size(), totals[0]);
+                    }
+                }
+                return totals;
+            } finally {
+                execute(control, "ALTER TABLE appointment ENABLE TRIGGER USER");
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Connection connection = DriverManager.getConnection(config.url(), config.user(), config.password());
+        try (Statement statement = connection.createStatement()) {
+            // bulk load only: losing the tail of the load on a crash is fine
+            statement.execute("SET synchronous_commit = OFF");
+        }
+        return connection;
+    }
+
+    private static int nextId(Connection connection, String table, String column) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void await(List<Future<?>> futures) throws Exception {
+        for (Future<?> future : futures) {
+            get(future);
+        }
+    }
+
+    private static <T> T get(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    private static void lap(long started, String stage) {
+        System.out.printf("%s done after %.1f s%n", stage, (System.nanoTime() - started) / 1e9);
+    }
+}
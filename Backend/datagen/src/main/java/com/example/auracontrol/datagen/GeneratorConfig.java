@@ -0,0 +1,111 @@
+package com.example.auracontrol.datagen;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dataset shape. Everything not given on the command line is derived from the
+ * appointment count so that {@code --appointments 50000000} alone gives a sensible dataset:
+ * one branch per 100k appointments keeps technicians at roughly half utilisation over two years.
+ *
+ * <pre>
+ * --url jdbc:postgresql://localhost:5432/auracontrol  --user postgres  --password postgres
+ * --appointments 1000000      --branches N/100k          --technicians-per-branch 25
+ * --rooms-per-branch 20       --vip-rooms-per-branch 4   --devices-per-branch 10
+ * --services 40               --customers N/25
+ * --start (see below)         --days 730                 --today (current date)
+ * --seed 42                   --threads cores            --truncate
+ * --user-password password
+ * </pre>
+ *
+ * <p>By default the range ends a month (at most a tenth of the range) after {@code --today}, so the
+ * dataset also has upcoming PENDING and CONFIRMED bookings.</p>
+ */
+record GeneratorConfig(
+        String url,
+        String user,
+        String password,
+        long appointments,
+        int branches,
+        int techniciansPerBranch,
+        int roomsPerBranch,
+        int vipRoomsPerBranch,
+        int devicesPerBranch,
+        int services,
+        int customers,
+        LocalDate start,
+        int days,
+        LocalDate today,
+        long seed,
+        int threads,
+        boolean truncate,
+        String userPassword
+) {
+    static final long APPOINTMENTS_PER_BRANCH = 100_000;
+    static final long APPOINTMENTS_PER_CUSTOMER = 25;
+
+    private static final Set<String> OPTIONS = Set.of(
+            "url", "user", "password", "appointments", "branches", "technicians-per-branch",
+            "rooms-per-branch", "vip-rooms-per-branch", "devices-per-branch", "services", "customers",
+            "start", "days", "today", "seed", "threads", "truncate", "user-password");
+
+    static GeneratorConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            String name = arg.substring(2);
+            if (!OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+            if (name.equals("truncate")) {
+                options.put(name, "true");
+            } else if (i + 1 < args.length) {
+                options.put(name, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+        }
+
+        long appointments = Long.parseLong(options.getOrDefault("appointments", "1000000"));
+        if (appointments > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("appointment_id is an INT column, at most " + Integer.MAX_VALUE + " appointments");
+        }
+        int days = Integer.parseInt(options.getOrDefault("days", "730"));
+        LocalDate today = LocalDate.parse(options.getOrDefault("today", LocalDate.now().toString()));
+
+        return new GeneratorConfig(
+                options.getOrDefault("url", "jdbc:postgresql://localhost:5432/auracontrol"),
+                options.getOrDefault("user", "postgres"),
+                options.getOrDefault("password", "postgres"),
+                appointments,
+                intOption(options, "branches", (int) Math.max(1, ceilDiv(appointments, APPOINTMENTS_PER_BRANCH))),
+                intOption(options, "technicians-per-branch", 25),
+                intOption(options, "rooms-per-branch", 20),
+                intOption(options, "vip-rooms-per-branch", 4),
+                intOption(options, "devices-per-branch", 10),
+                intOption(options, "services", 40),
+                intOption(options, "customers", (int) Math.max(100, appointments / APPOINTMENTS_PER_CUSTOMER)),
+                LocalDate.parse(options.getOrDefault("start", today.minusDays(days - Math.min(30, days / 10)).toString())),
+                days,
+                today,
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                intOption(options, "threads", Runtime.getRuntime().availableProcessors()),
+                Boolean.parseBoolean(options.getOrDefault("truncate", "false")),
+                options.getOrDefault("user-password", "password")
+        );
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return (a + b - 1) / b;
+    }
+}